@@ -0,0 +1,61 @@
+package com.code_room.auth_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Configuration class for the scheduler that runs blocking work off the Netty event loop.
+ *
+ * <p>The scheduler is bounded both in threads and in queued tasks, so a slow dependency
+ * cannot pile up unlimited work; once the queue is full new tasks are rejected with a
+ * {@link java.util.concurrent.RejectedExecutionException}. Task counts, latencies and
+ * active workers are published under the {@code auth.scheduler.blocking} metric prefix,
+ * tagged with the kind of threads the tasks run on.
+ *
+ * <p>With {@code auth.blocking.virtual-threads} enabled the workers are virtual threads,
+ * capped by {@code auth.blocking.virtual-thread-cap} instead of {@code auth.blocking.thread-cap}.
+ * A task parked on I/O then releases its carrier thread, so a large number of slow calls can
+ * be in flight without holding as many platform threads.
+ */
+@Configuration
+public class SchedulerConfig {
+
+    @Value("${auth.blocking.thread-cap:16}")
+    private int threadCap;
+
+    @Value("${auth.blocking.queued-task-cap:1000}")
+    private int queuedTaskCap;
+
+    @Value("${auth.blocking.ttl-seconds:60}")
+    private int ttlSeconds;
+
+    @Value("${auth.blocking.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${auth.blocking.virtual-thread-cap:1000}")
+    private int virtualThreadCap;
+
+    /**
+     * Creates the bounded scheduler used for blocking calls such as SMTP sends.
+     *
+     * @param meterRegistry the registry the scheduler metrics are published to
+     * @return the instrumented scheduler qualified with "blockingScheduler"
+     */
+    @Bean(destroyMethod = "dispose")
+    @Qualifier("blockingScheduler")
+    public Scheduler blockingScheduler(MeterRegistry meterRegistry) {
+        Scheduler scheduler = virtualThreads
+                ? Schedulers.newBoundedElastic(virtualThreadCap, queuedTaskCap,
+                        Thread.ofVirtual().name("blocking-io-vt-", 0).factory(), ttlSeconds)
+                : Schedulers.newBoundedElastic(threadCap, queuedTaskCap, "blocking-io", ttlSeconds, true);
+        return Micrometer.timedScheduler(scheduler, meterRegistry, "auth.scheduler.blocking",
+                Tags.of("threads", virtualThreads ? "virtual" : "platform"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.code_room.auth_service.config.accesslog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes access log records on a background thread, one JSON line each, to the {@value #LOGGER_NAME}
+ * logger.
+ *
+ * <p>Request threads only hand their record to an {@link AccessLogRing}; formatting and the logging
+ * backend's appenders run on the {@code access-log-writer} thread, which drains the ring and parks
+ * briefly whenever it is empty. Records that find the ring full are dropped and counted as
+ * {@code auth.access-log.dropped}; the backlog is published as {@code auth.access-log.pending}.
+ * Route the logger to its own appender in the logging configuration to keep it out of the console.
+ */
+@Component
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLog {
+
+    /**
+     * Name of the logger the records are written to.
+     */
+    public static final String LOGGER_NAME = "access-log";
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLog.class);
+
+    private static final Logger accessLog = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Autowired
+    private AccessLogProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AccessLogRing ring;
+
+    private Counter dropped;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        ring = new AccessLogRing(properties.getCapacity());
+        dropped = meterRegistry.counter("auth.access-log.dropped");
+        meterRegistry.gauge("auth.access-log.pending", ring, AccessLogRing::size);
+        if (properties.isEnabled()) {
+            running = true;
+            writer = new Thread(this::run, "access-log-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * Stops the writer once the records already buffered are written.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Queues a record for writing without blocking.
+     *
+     * @param record the exchange to log
+     * @return {@code false} if the buffer is full and the record was dropped
+     */
+    public boolean append(AccessLogRecord record) {
+        if (ring.offer(record)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * @return the number of records dropped because the buffer was full
+     */
+    public long dropped() {
+        return (long) dropped.count();
+    }
+
+    private void run() {
+        StringBuilder line = new StringBuilder(256);
+        while (running) {
+            if (drain(line) == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        drain(line);
+    }
+
+    /**
+     * Writes every record currently in the ring.
+     *
+     * @return the number of records written
+     */
+    int drain(StringBuilder line) {
+        int written = 0;
+        AccessLogRecord record;
+        while ((record = ring.poll()) != null) {
+            line.setLength(0);
+            record.appendJson(line);
+            try {
+                accessLog.info(line.toString());
+            } catch (RuntimeException e) {
+                log.warn("Could not write access log record", e);
+            }
+            written++;
+        }
+        return written;
+    }
+}
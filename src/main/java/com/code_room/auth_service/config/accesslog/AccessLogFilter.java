@@ -0,0 +1,195 @@
+package com.code_room.auth_service.config.accesslog;
+
+import com.code_room.auth_service.config.jwt.JwtClaimsResolver;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Records one {@link AccessLogRecord} per exchange, proxied or served locally, in the {@link AccessLog}.
+ *
+ * <p>The filter runs first so its timings cover the whole exchange, including authentication. Once the
+ * exchange completes, the route's {@link AccessLogVerbosity} and sample rate decide whether it is
+ * logged; server errors and exchanges slower than {@code auth.access-log.slow-threshold} are logged
+ * regardless of the sample rate, unless the route's verbosity is {@code none}. WebSocket upgrades use
+ * {@code auth.access-log.websocket-verbosity} instead, since their route, a path shared with plain
+ * HTTP, says nothing about them. All the request thread
+ * does is build the record and hand it over; nothing is formatted or written on it. Values of the
+ * parameters in {@code auth.access-log.redacted-parameters}, such as the password {@code /auth/register}
+ * takes in its query, never reach the record.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter implements WebFilter {
+
+    @Autowired
+    private AccessLog accessLog;
+
+    @Autowired
+    private AccessLogProperties properties;
+
+    private long slowThresholdNanos;
+
+    private Set<String> redactedParameters;
+
+    @PostConstruct
+    void init() {
+        slowThresholdNanos = properties.getSlowThreshold() != null
+                ? properties.getSlowThreshold().toNanos()
+                : Long.MAX_VALUE;
+        redactedParameters = properties.getRedactedParameters().stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        boolean websocket = isWebSocketUpgrade(exchange.getRequest());
+        if (!properties.isEnabled()
+                || (websocket && properties.getWebsocketVerbosity() == AccessLogVerbosity.NONE)) {
+            return chain.filter(exchange);
+        }
+        long startMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        AtomicLong commitNanos = new AtomicLong(-1);
+        exchange.getResponse().beforeCommit(() -> {
+            commitNanos.set(System.nanoTime() - start);
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .doFinally(signal -> log(exchange, websocket, startMillis, commitNanos.get(),
+                        System.nanoTime() - start));
+    }
+
+    private void log(ServerWebExchange exchange, boolean websocket, long startMillis, long commitNanos,
+                     long durationNanos) {
+        String route = route(exchange);
+        AccessLogProperties.Route overrides = route != null && !websocket ? properties.getRoutes().get(route) : null;
+        AccessLogVerbosity verbosity;
+        if (websocket) {
+            verbosity = properties.getWebsocketVerbosity();
+        } else {
+            verbosity = overrides != null && overrides.getVerbosity() != null
+                    ? overrides.getVerbosity()
+                    : properties.getVerbosity();
+        }
+        if (verbosity == AccessLogVerbosity.NONE) {
+            return;
+        }
+
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        int status = statusCode != null ? statusCode.value() : 0;
+        double sampleRate = overrides != null && overrides.getSampleRate() != null
+                ? overrides.getSampleRate()
+                : properties.getSampleRate();
+        boolean always = status >= 500 || (!websocket && durationNanos >= slowThresholdNanos);
+        if (!always && !sampled(sampleRate)) {
+            return;
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        Claims claims = exchange.getAttribute(JwtClaimsResolver.CLAIMS_ATTRIBUTE);
+        boolean full = verbosity == AccessLogVerbosity.FULL;
+        accessLog.append(new AccessLogRecord(
+                startMillis,
+                request.getMethod().name(),
+                request.getPath().value(),
+                route,
+                claims != null ? claims.getSubject() : null,
+                status,
+                commitNanos,
+                durationNanos,
+                full ? redact(request.getURI().getRawQuery()) : null,
+                full ? client(request) : null,
+                full ? request.getHeaders().getFirst(HttpHeaders.USER_AGENT) : null));
+    }
+
+    /**
+     * @return the gateway route id, or the pattern of the local handler, or {@code null} if nothing matched
+     */
+    private static String route(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route != null) {
+            return route.getId();
+        }
+        Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : null;
+    }
+
+    /**
+     * @return the raw query with the values of redacted parameters replaced by {@code ***}
+     */
+    String redact(String query) {
+        if (query == null || query.isEmpty() || redactedParameters.isEmpty()) {
+            return query;
+        }
+        StringBuilder redacted = new StringBuilder(query.length());
+        int start = 0;
+        while (start <= query.length()) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = query.length();
+            }
+            int equals = query.indexOf('=', start);
+            String parameter = query.substring(start, end);
+            if (equals >= 0 && equals < end && redacted(query.substring(start, equals))) {
+                parameter = query.substring(start, equals + 1) + "***";
+            }
+            if (start > 0) {
+                redacted.append('&');
+            }
+            redacted.append(parameter);
+            start = end + 1;
+        }
+        return redacted.toString();
+    }
+
+    private boolean redacted(String name) {
+        if (name.indexOf('%') >= 0 || name.indexOf('+') >= 0) {
+            try {
+                name = URLDecoder.decode(name, StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                return true;
+            }
+        }
+        return redactedParameters.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isWebSocketUpgrade(ServerHttpRequest request) {
+        return "websocket".equalsIgnoreCase(request.getHeaders().getUpgrade());
+    }
+
+    private static boolean sampled(double sampleRate) {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private static String client(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return null;
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+}
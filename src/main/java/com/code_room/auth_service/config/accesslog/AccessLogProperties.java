@@ -0,0 +1,67 @@
+package com.code_room.auth_service.config.accesslog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of the access log, bound from {@code auth.access-log}.
+ *
+ * <p>Routes are gateway route ids, or the matched handler pattern for the endpoints served by this
+ * service (e.g. {@code "[/auth/login]"} in YAML). A route without its own entry uses the top-level
+ * sample rate and verbosity.
+ */
+@Data
+@ConfigurationProperties("auth.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Records buffered for the writer, rounded up to a power of two; records beyond it are dropped.
+     */
+    private int capacity = 8192;
+
+    /**
+     * Fraction of exchanges logged, between 0 and 1.
+     */
+    private double sampleRate = 1.0;
+
+    private AccessLogVerbosity verbosity = AccessLogVerbosity.SUMMARY;
+
+    /**
+     * Verbosity of WebSocket upgrades, whatever their route. Their duration is the whole session, so
+     * they are never logged just for being slow.
+     */
+    private AccessLogVerbosity websocketVerbosity = AccessLogVerbosity.NONE;
+
+    /**
+     * Exchanges slower than this, and server errors, are logged whatever the sample rate; {@code null} disables it.
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Query parameters whose values are replaced by {@code ***} in full records, matched ignoring case.
+     */
+    private Set<String> redactedParameters = new LinkedHashSet<>(List.of("password", "token", "access_token",
+            "refresh_token", "refreshToken", "code", "secret", "client_secret", "api_key", "apiKey"));
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    /**
+     * Overrides for one route; unset values fall back to the top-level ones.
+     */
+    @Data
+    public static class Route {
+
+        private Double sampleRate;
+
+        private AccessLogVerbosity verbosity;
+    }
+}
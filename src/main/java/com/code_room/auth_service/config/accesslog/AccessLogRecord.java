@@ -0,0 +1,68 @@
+package com.code_room.auth_service.config.accesslog;
+
+/**
+ * One exchange as written to the access log.
+ *
+ * @param timestampMillis when the exchange started, in epoch milliseconds
+ * @param method          the HTTP method
+ * @param path            the request path
+ * @param route           the gateway route id or handler pattern, or {@code null} if nothing matched
+ * @param subject         the subject of the verified bearer token, or {@code null}
+ * @param status          the response status code, or {@code 0} if none was set
+ * @param commitNanos     time until the response headers were committed, or {@code -1} if they never were
+ * @param durationNanos   time until the exchange completed
+ * @param query           the raw query string, only at {@link AccessLogVerbosity#FULL}
+ * @param client          the client address, only at {@link AccessLogVerbosity#FULL}
+ * @param userAgent       the {@code User-Agent} header, only at {@link AccessLogVerbosity#FULL}
+ */
+public record AccessLogRecord(long timestampMillis, String method, String path, String route, String subject,
+                              int status, long commitNanos, long durationNanos,
+                              String query, String client, String userAgent) {
+
+    /**
+     * Appends the record as a single-line JSON object, leaving out absent fields.
+     *
+     * @param out the buffer to append to
+     */
+    void appendJson(StringBuilder out) {
+        out.append("{\"ts\":").append(timestampMillis);
+        string(out, "method", method);
+        string(out, "path", path);
+        string(out, "route", route);
+        string(out, "subject", subject);
+        out.append(",\"status\":").append(status);
+        if (commitNanos >= 0) {
+            out.append(",\"commit_us\":").append(commitNanos / 1000);
+        }
+        out.append(",\"duration_us\":").append(durationNanos / 1000);
+        string(out, "query", query);
+        string(out, "client", client);
+        string(out, "user_agent", userAgent);
+        out.append('}');
+    }
+
+    private static void string(StringBuilder out, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        out.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,90 @@
+package com.code_room.auth_service.config.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, single-consumer queue of access log records that never blocks.
+ *
+ * <p>Each slot carries a sequence number, as in Vyukov's bounded queue: a producer claims the next
+ * position with one CAS on the tail and publishes the record by advancing the slot's sequence; the
+ * consumer takes a slot once its sequence shows it published and releases it for the next lap. A
+ * producer that finds the ring full gets {@code false} back instead of waiting, so request threads
+ * never stall on a slow writer.
+ */
+final class AccessLogRing {
+
+    private final int mask;
+    private final AtomicReferenceArray<AccessLogRecord> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position to take; only written by the consumer, volatile so {@link #size()} can read it.
+     */
+    private volatile long head;
+
+    /**
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    AccessLogRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Access log capacity must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds a record; safe to call from any thread.
+     *
+     * @param record the record to add
+     * @return {@code false} if the ring is full and the record was dropped
+     */
+    boolean offer(AccessLogRecord record) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long sequence = sequences.getAcquire(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.setPlain(index, record);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest record; must only be called from the single consumer thread.
+     *
+     * @return the record, or {@code null} if none is published yet
+     */
+    AccessLogRecord poll() {
+        int index = (int) (head & mask);
+        if (sequences.getAcquire(index) != head + 1) {
+            return null;
+        }
+        AccessLogRecord record = slots.getPlain(index);
+        slots.setPlain(index, null);
+        sequences.setRelease(index, head + mask + 1);
+        head++;
+        return record;
+    }
+
+    /**
+     * @return an estimate of the records waiting to be taken
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
@@ -0,0 +1,22 @@
+package com.code_room.auth_service.config.accesslog;
+
+/**
+ * How much of an exchange the access log records.
+ */
+public enum AccessLogVerbosity {
+
+    /**
+     * Nothing, not even errors.
+     */
+    NONE,
+
+    /**
+     * Method, path, route, subject, status and timings.
+     */
+    SUMMARY,
+
+    /**
+     * The summary plus query string, client address and user agent.
+     */
+    FULL
+}
@@ -0,0 +1,62 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Set;
+
+/**
+ * What a request must carry to pass {@link JwtAuthenticationFilter}.
+ *
+ * @param type  the kind of check
+ * @param roles the roles accepted by {@link Type#ROLE}, empty otherwise
+ */
+public record AuthPolicy(Type type, Set<String> roles) {
+
+    public static final AuthPolicy ANONYMOUS = new AuthPolicy(Type.ANONYMOUS, Set.of());
+    public static final AuthPolicy BEARER = new AuthPolicy(Type.BEARER, Set.of());
+
+    public enum Type {
+        /**
+         * No token is needed and none is checked.
+         */
+        ANONYMOUS,
+        /**
+         * A valid bearer token is needed.
+         */
+        BEARER,
+        /**
+         * A valid bearer token whose role claim is one of the policy roles is needed.
+         */
+        ROLE
+    }
+
+    public AuthPolicy {
+        roles = roles != null ? Set.copyOf(roles) : Set.of();
+        if (type == Type.ROLE && roles.isEmpty()) {
+            throw new IllegalArgumentException("A role policy needs at least one role");
+        }
+    }
+
+    /**
+     * Builds the policy of a configured rule, reusing the shared instances where possible.
+     *
+     * @param type  the kind of check
+     * @param roles the accepted roles, for {@link Type#ROLE}
+     * @return the policy
+     */
+    public static AuthPolicy of(Type type, Set<String> roles) {
+        return switch (type) {
+            case ANONYMOUS -> ANONYMOUS;
+            case BEARER -> BEARER;
+            case ROLE -> new AuthPolicy(type, roles);
+        };
+    }
+
+    /**
+     * @param claims the verified claims of the request
+     * @return whether the claims satisfy the role requirement of this policy
+     */
+    public boolean permits(Claims claims) {
+        return type != Type.ROLE || roles.contains(claims.get(JwtService.ROLE_CLAIM, String.class));
+    }
+}
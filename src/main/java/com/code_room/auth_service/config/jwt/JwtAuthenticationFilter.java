@@ -1,8 +1,11 @@
 package com.code_room.auth_service.config.jwt;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.gateway.filter.*;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.*;
@@ -11,45 +14,77 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Global Gateway filter to validate JWT tokens.
- * Skips WebSocket (Upgrade) and any route starting with `/services/be/stream-service/ws`
+ *
+ * <p>Each request is checked against the {@link AuthPolicy} of its path, configured under
+ * {@code jwt.policies} and compiled at startup into a {@link PathPolicyMatcher}: anonymous paths pass
+ * untouched, the others need a valid bearer token and, for role policies, one of the listed roles.
+ * WebSocket upgrades follow {@code jwt.policies.websocket-upgrade}.
+ *
+ * <p>The time spent verifying the token and checking the policy is recorded as
+ * {@code auth.jwt.verify}, tagged with the outcome.
  */
 @Component
 @Order(0)
+@EnableConfigurationProperties(PathPolicyProperties.class)
 public class JwtAuthenticationFilter implements GlobalFilter {
 
 
-    @Value("${jwt.signature}")
-    private String jwtSecret;
+    @Autowired
+    private JwtClaimsResolver claimsResolver;
+
+    @Autowired
+    private PathPolicyProperties policyProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private PathPolicyMatcher policyMatcher;
+
+    private AuthPolicy websocketPolicy;
+
+    private Timer authorized;
+    private Timer missing;
+    private Timer forbidden;
+    private Timer invalid;
+
+    @PostConstruct
+    void init() {
+        policyMatcher = PathPolicyMatcher.compile(AuthPolicy.of(policyProperties.getDefaultPolicy(), null),
+                policyProperties.getRules());
+        websocketPolicy = AuthPolicy.of(policyProperties.getWebsocketUpgrade(), null);
+        authorized = verifyTimer("authorized");
+        missing = verifyTimer("missing");
+        forbidden = verifyTimer("forbidden");
+        invalid = verifyTimer("invalid");
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         String upgradeHeader = exchange.getRequest().getHeaders().getFirst("Upgrade");
-        String path = exchange.getRequest().getURI().getPath();
+        AuthPolicy policy = upgradeHeader != null && upgradeHeader.equalsIgnoreCase("websocket")
+                ? websocketPolicy
+                : policyMatcher.match(exchange.getRequest().getURI().getPath());
 
-        if (upgradeHeader != null && upgradeHeader.equalsIgnoreCase("websocket")) {
+        if (policy.type() == AuthPolicy.Type.ANONYMOUS) {
             return chain.filter(exchange);
         }
 
-        if (path.contains("/stream-service/ws")) {
-            return chain.filter(exchange);
-        }
-
-        String auth = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-        if (auth == null || !auth.startsWith("Bearer ")) {
-            return unauthorized(exchange, "Missing Authorization header");
-        }
-
+        long start = System.nanoTime();
         try {
-            String token = auth.substring(7);
-            byte[] key = Base64.getDecoder().decode(jwtSecret);
-            Claims claims = Jwts.parser()
-                    .setSigningKey(Keys.hmacShaKeyFor(key))
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = claimsResolver.resolve(exchange);
+            if (claims == null) {
+                missing.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return reject(exchange, HttpStatus.UNAUTHORIZED, "Missing Authorization header");
+            }
+            if (!policy.permits(claims)) {
+                forbidden.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return reject(exchange, HttpStatus.FORBIDDEN, "Insufficient role");
+            }
+            authorized.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
             return chain.filter(exchange.mutate()
                     .request(exchange.getRequest().mutate()
@@ -58,12 +93,20 @@ public class JwtAuthenticationFilter implements GlobalFilter {
                     .build());
 
         } catch (JwtException e) {
-            return unauthorized(exchange, "Invalid JWT: " + e.getMessage());
+            invalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return reject(exchange, HttpStatus.UNAUTHORIZED, "Invalid JWT: " + e.getMessage());
         }
     }
 
-    private Mono<Void> unauthorized(ServerWebExchange exchange, String msg) {
-        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("auth.jwt.verify")
+                .description("Time to verify the bearer token of a proxied request and check its path policy")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, String msg) {
+        exchange.getResponse().setStatusCode(status);
         var buf = exchange.getResponse().bufferFactory().wrap(msg.getBytes(StandardCharsets.UTF_8));
         exchange.getResponse().getHeaders().add("Content-Type", "text/plain");
         return exchange.getResponse().writeWith(Mono.just(buf));
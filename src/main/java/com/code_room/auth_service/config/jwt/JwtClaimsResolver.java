@@ -0,0 +1,114 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Verifies the bearer token of an exchange at most once and shares the result.
+ *
+ * <p>The first component that asks for the claims pays for the signature check and JSON decoding;
+ * the outcome is stored as an exchange attribute so {@link JwtFilter}, {@link JwtAuthenticationFilter}
+ * and controllers (through {@code @RequestAttribute(JwtClaimsResolver.CLAIMS_ATTRIBUTE)}) reuse it.
+ * A rejected token is remembered as well, so it is not re-verified either. Across exchanges,
+ * {@link VerifiedTokenCache} lets a repeated token skip verification altogether when enabled.
+ * Tokens listed in {@link RevokedTokenList} are rejected even when served from that cache.
+ * Before verification, {@link JwtPreValidator} turns away tokens that cannot be valid without any
+ * cryptographic work.
+ */
+@Component
+public class JwtClaimsResolver {
+
+    /**
+     * Exchange attribute holding the verified {@link Claims} of the bearer token.
+     */
+    public static final String CLAIMS_ATTRIBUTE = JwtClaimsResolver.class.getName() + ".claims";
+
+    /**
+     * Exchange attribute holding the exception raised while verifying the bearer token.
+     */
+    static final String FAILURE_ATTRIBUTE = JwtClaimsResolver.class.getName() + ".failure";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JwtPreValidator preValidator;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private RevokedTokenList revokedTokenList;
+
+    /**
+     * Returns the verified claims of the bearer token carried by the exchange.
+     *
+     * @param exchange the current server exchange
+     * @return the verified claims, or {@code null} if the request has no bearer token
+     * @throws JwtException if the token is malformed, badly signed, expired or revoked
+     */
+    public Claims resolve(ServerWebExchange exchange) {
+        Claims claims = exchange.getAttribute(CLAIMS_ATTRIBUTE);
+        if (claims != null) {
+            return claims;
+        }
+
+        JwtException failure = exchange.getAttribute(FAILURE_ATTRIBUTE);
+        if (failure != null) {
+            throw failure;
+        }
+
+        String token = bearerToken(exchange.getRequest());
+        if (token == null) {
+            return null;
+        }
+
+        claims = verifiedTokenCache.get(token);
+        if (claims == null) {
+            try {
+                preValidator.check(token);
+                claims = jwtService.extractAllClaims(token);
+            } catch (JwtException e) {
+                exchange.getAttributes().put(FAILURE_ATTRIBUTE, e);
+                throw e;
+            } catch (IllegalArgumentException e) {
+                JwtException invalid = new MalformedJwtException(e.getMessage(), e);
+                exchange.getAttributes().put(FAILURE_ATTRIBUTE, invalid);
+                throw invalid;
+            }
+            verifiedTokenCache.put(token, claims);
+        }
+
+        if (claims.getId() != null && claims.getExpiration() != null
+                && revokedTokenList.isRevoked(claims.getId(), claims.getExpiration().getTime())) {
+            JwtException revoked = new RevokedTokenException("Token has been revoked");
+            exchange.getAttributes().put(FAILURE_ATTRIBUTE, revoked);
+            throw revoked;
+        }
+
+        exchange.getAttributes().put(CLAIMS_ATTRIBUTE, claims);
+        return claims;
+    }
+
+    /**
+     * Extracts the raw token from a {@code Bearer} authorization header.
+     *
+     * @param request the incoming request
+     * @return the token, or {@code null} if the header is absent or not a bearer credential
+     */
+    public static String bearerToken(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        return authHeader.substring(BEARER_PREFIX.length());
+    }
+}
@@ -1,8 +1,14 @@
 package com.code_room.auth_service.config.jwt;
 
 import com.code_room.auth_service.domain.ports.UserService;
+import com.code_room.auth_service.infrastructure.restclient.dto.UserDto;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
@@ -13,23 +19,62 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT filter that intercepts HTTP requests to authenticate users based on JWT tokens.
  *
- * <p>This filter extracts the JWT token from the Authorization header, validates it,
- * fetches the user details, and sets the security context for downstream handlers.
+ * <p>This filter resolves the JWT token from the Authorization header through {@link JwtClaimsResolver},
+ * which verifies it once per exchange, and sets the security context for downstream handlers.
+ *
+ * <p>In stateless mode ({@code jwt.stateless.enabled}, the default) the authenticated user is rebuilt
+ * from the signed subject, role and user id claims, so no call to the user-service is made. If
+ * {@code jwt.stateless.max-staleness} is set, tokens issued longer ago than that, as well as tokens
+ * without those claims, fall back to looking the user up by email.
+ *
+ * <p>The time to resolve the authenticated user is recorded as {@code auth.jwt.lookup}, tagged with
+ * where the user came from: {@code claims}, {@code user-service}, or {@code none} for requests that
+ * stay anonymous.
  */
 @Component
 public class JwtFilter implements WebFilter {
 
+    @Autowired
+    private JwtClaimsResolver claimsResolver;
+
     @Autowired
     private JwtService jwtService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.stateless.enabled:true}")
+    private boolean statelessEnabled;
+
+    /**
+     * Maximum age of the claims trusted without a user lookup; {@code null} trusts them until the token expires.
+     */
+    @Value("${jwt.stateless.max-staleness:}")
+    private Duration maxStaleness;
+
+    private Timer fromClaims;
+    private Timer fromUserService;
+    private Timer anonymous;
+
+    @PostConstruct
+    void init() {
+        fromClaims = lookupTimer("claims");
+        fromUserService = lookupTimer("user-service");
+        anonymous = lookupTimer("none");
+    }
+
     /**
      * Filters incoming requests and attempts to authenticate the user if a valid JWT token is present.
      *
@@ -40,21 +85,21 @@ public class JwtFilter implements WebFilter {
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
 
-        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = claimsResolver.resolve(exchange);
+        } catch (JwtException e) {
+            anonymous.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             return chain.filter(exchange);
         }
 
-        String token = authHeader.substring(7);
-        String email = jwtService.extractEmail(token);
-
-        if (email == null) {
+        if (claims == null || claims.getSubject() == null) {
+            anonymous.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             return chain.filter(exchange);
         }
 
-        return Mono.fromCallable(() -> userService.findByEmail(email))
-                .filter(user -> user != null && jwtService.isTokenValid(token))
+        return authenticatedUser(claims, start)
                 .map(user -> {
                     var authToken = new UsernamePasswordAuthenticationToken(
                             user,
@@ -63,8 +108,47 @@ public class JwtFilter implements WebFilter {
                     );
                     return new SecurityContextImpl(authToken);
                 })
-                .flatMap(ctx -> chain.filter(exchange)
-                        .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(ctx))))
-                .switchIfEmpty(chain.filter(exchange));
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(ctx -> ctx
+                        .map(securityContext -> chain.filter(exchange)
+                                .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(securityContext))))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+
+    /**
+     * Resolves the user behind verified claims, from the claims themselves when they are fresh enough
+     * and from the user-service otherwise.
+     *
+     * @param claims the verified token claims
+     * @param start  the {@link System#nanoTime()} the lookup started at
+     * @return a Mono emitting the authenticated user, or empty if the user cannot be found
+     */
+    private Mono<UserDto> authenticatedUser(Claims claims, long start) {
+        if (statelessEnabled && !isStale(claims)) {
+            UserDto user = jwtService.userFromClaims(claims);
+            if (user != null) {
+                fromClaims.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return Mono.just(user);
+            }
+        }
+        return userService.findByEmail(claims.getSubject())
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> fromUserService.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private Timer lookupTimer(String source) {
+        return Timer.builder("auth.jwt.lookup")
+                .description("Time to resolve the authenticated user of a request")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private boolean isStale(Claims claims) {
+        if (maxStaleness == null) {
+            return false;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() + maxStaleness.toMillis() < System.currentTimeMillis();
     }
 }
@@ -0,0 +1,430 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.security.PublicJwk;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared key ring used to sign and verify JWT tokens.
+ *
+ * <p>Tokens are signed with the algorithm in {@code jwt.algorithm}: {@code HS256} with the Base64
+ * encoded {@code jwt.signature} secret, or {@code ES256} / {@code EdDSA} with the PKCS#8 PEM
+ * {@code jwt.private-key}. Every token carries a {@code kid} header, the RFC 7638 thumbprint of its key,
+ * and public keys are published by {@code /.well-known/jwks.json} so downstream services can verify
+ * tokens locally.
+ *
+ * <p>The ring holds one signing key and any number of verification keys, so keys can be rotated
+ * without invalidating outstanding tokens:
+ * <ul>
+ *     <li>a key replaced through an environment refresh, or superseded by a newer key, keeps verifying
+ *     for the longest token lifetime and is then dropped;</li>
+ *     <li>the private keys or secrets in {@code jwt.keys.directory} are watched and reloaded when files are
+ *     added, changed or removed; removing a file drops its key at once, which revokes the tokens it signed;</li>
+ *     <li>with {@code jwt.rotation.interval} set, a new asymmetric key is generated on that interval.
+ *     Generated keys exist on one instance only, so this only suits a single instance and cannot be
+ *     combined with {@code jwt.keys.directory}; several instances rotate by adding files there.</li>
+ * </ul>
+ * When an asymmetric algorithm is selected, a {@code jwt.signature} secret still configured only
+ * verifies the HS256 tokens signed before the switch and is dropped after the longest token lifetime,
+ * since anyone holding the shared secret could otherwise keep minting tokens; set
+ * {@code jwt.keys.keep-hmac} to keep verifying with it.
+ * New asymmetric keys are published {@code jwt.keys.publish-ahead} before they start signing, which
+ * leaves downstream JWKS caches time to pick them up.
+ *
+ * <p>The ring and its immutable, thread-safe {@link JwtParser} are rebuilt off the request path and
+ * swapped atomically, so {@link JwtService} and {@link JwtAuthenticationFilter} never pay for key
+ * derivation and select the key of a token with a single lookup.
+ */
+@Component
+public class JwtKeyProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyProvider.class);
+
+    static final String SIGNATURE_PROPERTY = "jwt.signature";
+    static final String ALGORITHM_PROPERTY = "jwt.algorithm";
+    static final String PRIVATE_KEY_PROPERTY = "jwt.private-key";
+
+    private static final String DEFAULT_ALGORITHM = JwtSigningKey.HS256;
+    private static final String PROPERTY_ORIGIN = "property";
+    private static final String GENERATED_ORIGIN = "generated";
+    private static final String FILE_ORIGIN = "file:";
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${jwt.expiration:86400000}")
+    private long expirationMillis = 86_400_000L;
+
+    @Value("${jwt.refresh-expiration:86400000}")
+    private long refreshExpirationMillis = 86_400_000L;
+
+    /**
+     * Directory of PEM private keys or Base64 secrets to load and watch; blank disables it.
+     */
+    @Value("${jwt.keys.directory:}")
+    private String keysDirectory;
+
+    @Value("${jwt.keys.publish-ahead:5m}")
+    private Duration publishAhead = Duration.ofMinutes(5);
+
+    @Value("${jwt.keys.check-interval:10s}")
+    private Duration checkInterval = Duration.ofSeconds(10);
+
+    /**
+     * Whether the HMAC secret keeps verifying tokens after switching to an asymmetric algorithm.
+     */
+    @Value("${jwt.keys.keep-hmac:false}")
+    private boolean keepHmac;
+
+    /**
+     * Interval between generated asymmetric keys; {@code null} disables scheduled rotation.
+     */
+    @Value("${jwt.rotation.interval:}")
+    private Duration rotationInterval;
+
+    /**
+     * Current snapshot, replaced as a whole so readers never see a signing key and parser out of sync.
+     */
+    private volatile JwtKeyRing ring;
+
+    // State below is guarded by "this" and only read to build the next ring.
+
+    private final Map<String, JwtSigningKey> keys = new LinkedHashMap<>();
+    private Settings settings;
+    private String unkeyedKid;
+    private long lastRotationMillis;
+
+    private Scheduler scheduler;
+    private WatchService watchService;
+
+    /**
+     * Builds the initial ring and starts watching the key directory and the rotation schedule.
+     */
+    @PostConstruct
+    void init() {
+        if (rotationInterval != null && keysDirectory != null && !keysDirectory.isBlank()) {
+            throw new IllegalStateException("jwt.rotation.interval generates keys on this instance only and cannot be "
+                    + "combined with the shared jwt.keys.directory; rotate by adding key files instead");
+        }
+        reloadFromEnvironment();
+        if (keysDirectory != null && !keysDirectory.isBlank()) {
+            reloadDirectory();
+            watchDirectory();
+        }
+        lastRotationMillis = System.currentTimeMillis();
+        scheduler = Schedulers.newSingle("jwt-key-ring");
+        scheduler.schedulePeriodically(this::check, checkInterval.toMillis(), checkInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Could not close the key directory watch", e);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the property keys when one of the key properties is changed through an environment refresh.
+     *
+     * @param event the environment change event published by Spring Cloud
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().contains(SIGNATURE_PROPERTY) || event.getKeys().contains(ALGORITHM_PROPERTY)
+                || event.getKeys().contains(PRIVATE_KEY_PROPERTY)) {
+            reloadFromEnvironment();
+        }
+    }
+
+    private void reloadFromEnvironment() {
+        reload(environment.getProperty(ALGORITHM_PROPERTY, DEFAULT_ALGORITHM),
+                environment.getProperty(SIGNATURE_PROPERTY),
+                environment.getProperty(PRIVATE_KEY_PROPERTY));
+    }
+
+    /**
+     * Replaces the HMAC secret, keeping HS256 as signing algorithm.
+     *
+     * @param secretBase64 the Base64 encoded HMAC secret
+     */
+    public void reload(String secretBase64) {
+        reload(DEFAULT_ALGORITHM, secretBase64, null);
+    }
+
+    /**
+     * Replaces the keys configured through properties. Keys no longer configured keep verifying
+     * tokens for the longest token lifetime. Does nothing if the settings are unchanged.
+     *
+     * @param algorithm     {@code HS256}, {@code ES256} or {@code EdDSA}
+     * @param secretBase64  the Base64 encoded HMAC secret, required for HS256 and optional otherwise
+     * @param privateKeyPem the PKCS#8 PEM private key for asymmetric algorithms; when blank an
+     *                      ephemeral key pair is generated, which only suits a single instance
+     * @throws IllegalArgumentException if the algorithm is unsupported or a key cannot be read
+     */
+    public synchronized void reload(String algorithm, String secretBase64, String privateKeyPem) {
+        Settings next = new Settings(algorithm, blankToNull(secretBase64), blankToNull(privateKeyPem));
+        if (next.equals(settings)) {
+            return;
+        }
+        boolean asymmetric = JwtSigningKey.isAsymmetric(algorithm);
+        if (!asymmetric && !DEFAULT_ALGORITHM.equals(algorithm)) {
+            throw new IllegalArgumentException("Unsupported JWT algorithm " + algorithm);
+        }
+        if (!asymmetric) {
+            Objects.requireNonNull(next.secretBase64(), SIGNATURE_PROPERTY + " is required for HS256");
+        }
+
+        long now = System.currentTimeMillis();
+        boolean initial = settings == null;
+        List<JwtSigningKey> configured = new ArrayList<>(2);
+        if (next.secretBase64() != null) {
+            configured.add(JwtSigningKey.hmac(next.secretBase64(), !asymmetric, PROPERTY_ORIGIN, initial ? 0 : now));
+        }
+        if (asymmetric) {
+            long activatesAt = initial ? 0 : now + publishAhead.toMillis();
+            if (next.privateKeyPem() != null) {
+                configured.add(JwtSigningKey.parse(next.privateKeyPem(), PROPERTY_ORIGIN, activatesAt));
+            } else {
+                log.warn("{} is not set, signing with an ephemeral {} key", PRIVATE_KEY_PROPERTY, algorithm);
+                configured.add(JwtSigningKey.generate(algorithm, PROPERTY_ORIGIN, activatesAt));
+            }
+        }
+
+        List<String> configuredKids = configured.stream().map(JwtSigningKey::kid).toList();
+        keys.replaceAll((kid, key) -> PROPERTY_ORIGIN.equals(key.origin()) && !configuredKids.contains(kid)
+                ? retire(key, now) : key);
+        for (JwtSigningKey key : configured) {
+            JwtSigningKey existing = keys.get(key.kid());
+            if (asymmetric && key.publicJwk() == null && !keepHmac) {
+                // the shared secret only verifies tokens signed before the switch, then goes
+                keys.put(key.kid(), retire(existing != null ? existing.withSigning(false) : key, now));
+                log.warn("{} is still set with {}; HS256 tokens are accepted until {}, remove the secret",
+                        SIGNATURE_PROPERTY, algorithm, Instant.ofEpochMilli(keys.get(key.kid()).retiresAtMillis()));
+                continue;
+            }
+            // a key still configured keeps its activation; one configured again after retiring starts over
+            keys.put(key.kid(), existing != null && !existing.isRetiring() ? existing.withSigning(key.signing()) : key);
+        }
+        if (unkeyedKid == null && next.secretBase64() != null) {
+            unkeyedKid = configured.get(0).kid();
+        }
+        settings = next;
+        rebuild(now);
+    }
+
+    /**
+     * Signs a token with the current key, adding its {@code kid} header.
+     *
+     * @param builder the token to sign
+     * @return the compact signed token
+     */
+    public String sign(JwtBuilder builder) {
+        JwtSigningKey current = ring.current();
+        builder.header().keyId(current.kid());
+        return builder.signWith(current.signingKey(), current.algorithm()).compact();
+    }
+
+    /**
+     * @return a thread-safe parser that verifies tokens against every key of the ring
+     */
+    public JwtParser getParser() {
+        return ring.parser();
+    }
+
+    /**
+     * @return the public keys tokens may be verified with, including keys about to sign and
+     * retired keys still verifying; empty when only HMAC is used
+     */
+    public List<PublicJwk<?>> getPublicJwks() {
+        return ring.publicJwks();
+    }
+
+    /**
+     * @return the {@code kid} of the key new tokens are signed with
+     */
+    public String getSigningKeyId() {
+        return ring.current().kid();
+    }
+
+    /**
+     * Periodic maintenance: reloads the key directory after file changes, generates a key when the
+     * rotation interval has elapsed, and activates or drops keys whose time has come.
+     */
+    void check() {
+        check(System.currentTimeMillis());
+    }
+
+    /**
+     * Runs the maintenance as of the given time.
+     *
+     * @param now the current time, in epoch milliseconds
+     */
+    synchronized void check(long now) {
+        try {
+            if (directoryChanged()) {
+                reloadDirectory();
+            }
+            if (rotationInterval != null && JwtSigningKey.isAsymmetric(settings.algorithm())
+                    && now - lastRotationMillis >= rotationInterval.toMillis()) {
+                rotate(now);
+            }
+            rebuild(now);
+        } catch (RuntimeException e) {
+            log.error("JWT key ring maintenance failed, keeping the current keys", e);
+        }
+    }
+
+    /**
+     * Generates a new key for the configured asymmetric algorithm, which starts signing once it has
+     * been published for {@code jwt.keys.publish-ahead}.
+     */
+    synchronized void rotate(long now) {
+        JwtSigningKey key = JwtSigningKey.generate(settings.algorithm(), GENERATED_ORIGIN, now + publishAhead.toMillis());
+        keys.put(key.kid(), key);
+        lastRotationMillis = now;
+        log.info("Generated JWT signing key {}, signing with it from {}", key.kid(), key.activatesAtMillis());
+        rebuild(now);
+    }
+
+    /**
+     * Reconciles the ring with the key directory: new files are added, removed files are dropped at
+     * once and unchanged files are kept as they are. A file activates {@code jwt.keys.publish-ahead}
+     * after its modification time, so every instance sharing the directory switches at the same moment.
+     */
+    synchronized void reloadDirectory() {
+        Map<String, JwtSigningKey> found = new LinkedHashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Path.of(keysDirectory))) {
+            for (Path file : files) {
+                if (!Files.isRegularFile(file) || file.getFileName().toString().startsWith(".")) {
+                    continue;
+                }
+                try {
+                    long activatesAt = Files.getLastModifiedTime(file).toMillis() + publishAhead.toMillis();
+                    JwtSigningKey key = JwtSigningKey.parse(Files.readString(file, StandardCharsets.UTF_8),
+                            FILE_ORIGIN + file.getFileName(), activatesAt);
+                    found.put(key.kid(), key);
+                } catch (IOException | IllegalArgumentException e) {
+                    log.warn("Skipping unreadable JWT key file {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read JWT key directory " + keysDirectory, e);
+        }
+
+        keys.values().removeIf(key -> key.isFromFile() && !found.containsKey(key.kid()));
+        found.forEach(keys::putIfAbsent);
+        rebuild(System.currentTimeMillis());
+    }
+
+    private void watchDirectory() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            Path.of(keysDirectory).register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not watch JWT key directory " + keysDirectory, e);
+        }
+    }
+
+    /**
+     * Drains pending watch events without blocking.
+     */
+    private boolean directoryChanged() {
+        if (watchService == null) {
+            return false;
+        }
+        boolean changed = false;
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            changed |= !key.pollEvents().isEmpty();
+            key.reset();
+        }
+        return changed;
+    }
+
+    /**
+     * Drops expired keys, picks the signing key and swaps in a new ring if anything changed.
+     * The signing key is the most recently activated one; the key it replaces starts retiring.
+     */
+    private void rebuild(long now) {
+        keys.values().removeIf(key -> key.retiresAtMillis() <= now);
+
+        Comparator<JwtSigningKey> byActivation = Comparator.comparingLong(JwtSigningKey::activatesAtMillis);
+        List<JwtSigningKey> candidates = keys.values().stream().filter(JwtSigningKey::signing).toList();
+        JwtSigningKey current = candidates.stream()
+                .filter(key -> !key.isRetiring() && key.activatesAtMillis() <= now)
+                .max(byActivation)
+                // nothing active yet, e.g. a fresh key directory: sign with the key closest to activation
+                .or(() -> candidates.stream().filter(key -> !key.isRetiring()).min(byActivation))
+                .or(() -> candidates.stream().max(byActivation))
+                .orElseThrow(() -> new IllegalStateException("No JWT signing key configured"));
+
+        JwtKeyRing previous = ring;
+        if (previous != null && !previous.current().kid().equals(current.kid())) {
+            JwtSigningKey replaced = keys.get(previous.current().kid());
+            if (replaced != null && !replaced.isRetiring() && !replaced.isFromFile()) {
+                keys.put(replaced.kid(), retire(replaced, now));
+            }
+            log.info("JWT signing key switched from {} to {}", previous.current().kid(), current.kid());
+        }
+
+        if (previous == null || previous.current() != current || !previous.keys().containsAll(keys.values())
+                || previous.keys().size() != keys.size()) {
+            ring = new JwtKeyRing(List.copyOf(keys.values()), current, unkeyedKid != null ? keys.get(unkeyedKid) : null);
+        }
+    }
+
+    private JwtSigningKey retire(JwtSigningKey key, long now) {
+        return key.isRetiring() ? key : key.retiringAt(now + Math.max(expirationMillis, refreshExpirationMillis));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * Property values the property keys are built from.
+     */
+    private record Settings(String algorithm, String secretBase64, String privateKeyPem) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.InvalidKeyException;
+import io.jsonwebtoken.security.PublicJwk;
+
+import java.security.Key;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of the keys tokens are signed and verified with.
+ *
+ * <p>Verification keys are indexed by {@code kid}, so the parser selects the key of a token with one
+ * map lookup however many keys are active during a rotation. Tokens issued before key ids were
+ * introduced carry no {@code kid} and are verified with the {@code unkeyed} HMAC key, if any.
+ */
+final class JwtKeyRing {
+
+    private final Map<String, JwtSigningKey> keysByKid;
+    private final JwtSigningKey current;
+    private final JwtSigningKey unkeyed;
+    private final List<PublicJwk<?>> publicJwks;
+    private final JwtParser parser;
+
+    /**
+     * @param keys    every key tokens may be verified with
+     * @param current the key new tokens are signed with, one of {@code keys}
+     * @param unkeyed the key verifying tokens without {@code kid}, or {@code null}
+     */
+    JwtKeyRing(Collection<JwtSigningKey> keys, JwtSigningKey current, JwtSigningKey unkeyed) {
+        Map<String, JwtSigningKey> byKid = new HashMap<>(keys.size() * 2);
+        keys.forEach(key -> byKid.put(key.kid(), key));
+        this.keysByKid = Map.copyOf(byKid);
+        this.current = current;
+        this.unkeyed = unkeyed;
+        this.publicJwks = keys.stream()
+                .map(JwtSigningKey::publicJwk)
+                .filter(Objects::nonNull)
+                .toList();
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return verificationKey(header);
+                    }
+                })
+                .build();
+    }
+
+    private Key verificationKey(JwsHeader header) {
+        String kid = header.getKeyId();
+        JwtSigningKey key = kid != null ? keysByKid.get(kid) : unkeyed;
+        if (key == null) {
+            throw new InvalidKeyException("Unknown signing key " + kid);
+        }
+        if (!key.algorithm().getId().equals(header.getAlgorithm())) {
+            throw new InvalidKeyException("Signing key " + kid + " does not sign " + header.getAlgorithm() + " tokens");
+        }
+        return key.verificationKey();
+    }
+
+    JwtSigningKey current() {
+        return current;
+    }
+
+    JwtSigningKey find(String kid) {
+        return keysByKid.get(kid);
+    }
+
+    Collection<JwtSigningKey> keys() {
+        return keysByKid.values();
+    }
+
+    List<PublicJwk<?>> publicJwks() {
+        return publicJwks;
+    }
+
+    JwtParser parser() {
+        return parser;
+    }
+}
@@ -0,0 +1,252 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cheap structural checks run on a bearer token before its signature is verified.
+ *
+ * <p>Junk traffic — truncated or oversized tokens, tokens signed with an algorithm this service never
+ * issues, or tokens that expired long ago — is rejected here, so it costs a few string and byte
+ * scans instead of a full parse, JSON binding and signature check. The checks are deliberately
+ * conservative: a token that passes may still be rejected by {@link JwtService}, but every token
+ * rejected here would have been rejected there too.
+ *
+ * <p>Rejections are counted by reason as {@code auth.jwt.precheck.rejected}, and thrown as the
+ * {@link JwtException} subtype the full parser would have thrown.
+ */
+@Component
+public class JwtPreValidator {
+
+    /**
+     * Why a token was rejected.
+     */
+    public enum Rejection {
+        TOO_LARGE,
+        MALFORMED,
+        ALGORITHM,
+        EXPIRED
+    }
+
+    private static final int NOT_FOUND = -1;
+    private static final int INVALID = -2;
+
+    private static final byte[] ALG = "alg".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP = "exp".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.precheck.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.precheck.max-length:8192}")
+    private int maxLength;
+
+    @Value("${jwt.precheck.algorithms:HS256,ES256,EdDSA}")
+    private Set<String> algorithms;
+
+    private final Map<Rejection, Counter> rejections = new EnumMap<>(Rejection.class);
+
+    @PostConstruct
+    void init() {
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, Counter.builder("auth.jwt.precheck.rejected")
+                    .tag("reason", rejection.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Checks the structure, size, algorithm and expiration of a compact JWS without verifying it.
+     *
+     * @param token the compact token
+     * @throws JwtException if the token cannot possibly be valid
+     */
+    public void check(String token) {
+        if (!enabled) {
+            return;
+        }
+        int length = token.length();
+        if (length > maxLength) {
+            throw reject(Rejection.TOO_LARGE, "Token exceeds " + maxLength + " characters");
+        }
+
+        int firstDot = NOT_FOUND;
+        int secondDot = NOT_FOUND;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot == NOT_FOUND) {
+                    firstDot = i;
+                } else if (secondDot == NOT_FOUND) {
+                    secondDot = i;
+                } else {
+                    throw reject(Rejection.MALFORMED, "Token has more than three segments");
+                }
+            } else if (!isBase64Url(c)) {
+                throw reject(Rejection.MALFORMED, "Token contains an invalid character");
+            }
+        }
+        if (secondDot == NOT_FOUND || firstDot == 0 || secondDot == firstDot + 1 || secondDot == length - 1) {
+            throw reject(Rejection.MALFORMED, "Token is not a signed JWT");
+        }
+
+        byte[] header = decode(token, 0, firstDot);
+        String algorithm = stringValue(header, ALG);
+        if (algorithm == null || !algorithms.contains(algorithm)) {
+            throw reject(Rejection.ALGORITHM, "Token algorithm is not accepted");
+        }
+
+        byte[] payload = decode(token, firstDot + 1, secondDot);
+        long expiresAtSeconds = numberValue(payload, EXP);
+        if (expiresAtSeconds >= 0 && expiresAtSeconds * 1000 < System.currentTimeMillis()) {
+            throw reject(Rejection.EXPIRED, "Token has expired");
+        }
+    }
+
+    /**
+     * @return the number of tokens rejected for a reason so far
+     */
+    public long rejected(Rejection rejection) {
+        return (long) rejections.get(rejection).count();
+    }
+
+    private JwtException reject(Rejection rejection, String message) {
+        rejections.get(rejection).increment();
+        return switch (rejection) {
+            case TOO_LARGE, MALFORMED -> new MalformedJwtException(message);
+            case ALGORITHM -> new UnsupportedJwtException(message);
+            case EXPIRED -> new ExpiredJwtException(null, null, message);
+        };
+    }
+
+    private byte[] decode(String token, int from, int to) {
+        try {
+            return Base64.getUrlDecoder().decode(token.substring(from, to));
+        } catch (IllegalArgumentException e) {
+            throw reject(Rejection.MALFORMED, "Token segment is not Base64URL");
+        }
+    }
+
+    private String stringValue(byte[] json, byte[] key) {
+        int start = valueOffset(json, key);
+        if (start < 0 || json[start] != '"') {
+            return null;
+        }
+        int end = stringEnd(json, start);
+        if (end < 0) {
+            return null;
+        }
+        for (int i = start + 1; i < end; i++) {
+            if (json[i] == '\\') {
+                return null;
+            }
+        }
+        return new String(json, start + 1, end - start - 1, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the integral part of a non-negative numeric member, or returns {@code -1} when it is
+     * absent or not a plain number, leaving the decision to the full parser.
+     */
+    private long numberValue(byte[] json, byte[] key) {
+        int start = valueOffset(json, key);
+        if (start < 0 || json[start] < '0' || json[start] > '9') {
+            return NOT_FOUND;
+        }
+        long value = 0;
+        for (int i = start; i < json.length && json[i] >= '0' && json[i] <= '9'; i++) {
+            if (i - start >= 18) {
+                return NOT_FOUND;
+            }
+            value = value * 10 + (json[i] - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Finds the value of a top-level member of a JSON object without binding it.
+     *
+     * @return the offset of the first byte of the value, {@link #NOT_FOUND} or {@link #INVALID}
+     */
+    private int valueOffset(byte[] json, byte[] key) {
+        int i = skipWhitespace(json, 0);
+        if (i >= json.length || json[i] != '{') {
+            throw reject(Rejection.MALFORMED, "Token segment is not a JSON object");
+        }
+        int depth = 0;
+        boolean expectKey = false;
+        for (; i < json.length; i++) {
+            byte b = json[i];
+            if (b == '"') {
+                int end = stringEnd(json, i);
+                if (end < 0) {
+                    return INVALID;
+                }
+                if (depth == 1 && expectKey) {
+                    if (end - i - 1 == key.length && Arrays.equals(json, i + 1, end, key, 0, key.length)) {
+                        int colon = skipWhitespace(json, end + 1);
+                        if (colon >= json.length || json[colon] != ':') {
+                            return INVALID;
+                        }
+                        int value = skipWhitespace(json, colon + 1);
+                        return value < json.length ? value : INVALID;
+                    }
+                    expectKey = false;
+                }
+                i = end;
+            } else if (b == '{' || b == '[') {
+                depth++;
+                expectKey = depth == 1;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            } else if (b == ',' && depth == 1) {
+                expectKey = true;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * @return the offset of the quote closing the string opened at {@code start}, or {@code -1}
+     */
+    private static int stringEnd(byte[] json, int start) {
+        for (int i = start + 1; i < json.length; i++) {
+            if (json[i] == '\\') {
+                i++;
+            } else if (json[i] == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(byte[] json, int from) {
+        int i = from;
+        while (i < json.length && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '=';
+    }
+}
@@ -1,31 +1,57 @@
 package com.code_room.auth_service.config.jwt;
 
+import com.code_room.auth_service.domain.Enum.Role;
 import com.code_room.auth_service.domain.ports.UserService;
 import com.code_room.auth_service.infrastructure.controller.dto.RefreshTokenRequest;
 import com.code_room.auth_service.infrastructure.restclient.dto.UserDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service class responsible for generating and validating JWT tokens.
  *
  * <p>Handles token creation for access and refresh tokens, extracting claims,
  * validating tokens, and building response payloads for login and token refresh operations.
+ *
+ * <p>The time to build and sign each token is recorded as {@code auth.jwt.issue}, tagged with
+ * the token type.
  */
 @Component
 public class JwtService {
 
-    @Value("${jwt.signature}")
-    private String secretKeyBase64;
+    /**
+     * Claim carrying the user's role.
+     */
+    public static final String ROLE_CLAIM = "role";
+
+    /**
+     * Claim carrying the user's id in the user-service.
+     */
+    public static final String USER_ID_CLAIM = "user_id";
+
+    /**
+     * Claim carrying the id of the rotation family of a refresh token.
+     */
+    public static final String FAMILY_CLAIM = "fam";
 
     @Value("${jwt.expiration}")
     private long expirationMillis;
@@ -33,16 +59,45 @@ public class JwtService {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpirationMillis;
 
+    @Value("${auth.refresh-tokens.reuse-grace:10s}")
+    private Duration reuseGrace;
+
     @Autowired
     UserService userService;
 
+    @Autowired
+    private JwtKeyProvider keyProvider;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private RevokedTokenList revokedTokenList;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer accessIssue;
+    private Timer refreshIssue;
+
     /**
-     * Decodes the base64-encoded secret key for signing JWTs.
-     *
-     * @return byte array representing the secret key
+     * Refreshes in flight, keyed by refresh token, so concurrent duplicates share one result.
+     */
+    private final SingleFlight<String, Map<String, Object>> refreshes = new SingleFlight<>();
+
+    /**
+     * Responses of the refreshes completed within the reuse grace period, keyed by refresh token, so a
+     * duplicate arriving just after its flight finished gets the same successor instead of a new one.
      */
-    private byte[] getSecretKey() {
-        return Base64.getDecoder().decode(secretKeyBase64);
+    private Cache<String, Map<String, Object>> recentRefreshes;
+
+    @PostConstruct
+    void init() {
+        accessIssue = issueTimer("access");
+        refreshIssue = issueTimer("refresh");
+        recentRefreshes = Caffeine.newBuilder()
+                .expireAfterWrite(reuseGrace)
+                .build();
     }
 
     /**
@@ -52,34 +107,60 @@ public class JwtService {
      * @return a signed JWT access token as a String
      */
     public String generateToken(UserDto user) {
-        return buildToken(user, expirationMillis);
+        return buildToken(user, System.currentTimeMillis() + expirationMillis, UUID.randomUUID().toString(), null);
     }
 
     /**
-     * Generates a JWT refresh token for the specified user.
+     * Generates a JWT refresh token for the specified user, starting a new rotation family.
      *
      * @param user the user data transfer object
      * @return a signed JWT refresh token as a String
      */
     public String generateRefreshToken(UserDto user) {
-        return buildToken(user, refreshExpirationMillis);
+        return generateRefreshToken(user, refreshTokenStore.newFamily(user.getEmail()));
+    }
+
+    /**
+     * Generates a JWT refresh token in a rotation family and registers it in the {@link RefreshTokenStore}.
+     *
+     * @param user   the user data transfer object
+     * @param family the family the token belongs to
+     * @return a signed JWT refresh token as a String
+     */
+    private String generateRefreshToken(UserDto user, RefreshTokenStore.TokenFamily family) {
+        long expiresAt = System.currentTimeMillis() + refreshExpirationMillis;
+        String jti = refreshTokenStore.issue(family, expiresAt);
+        return buildToken(user, expiresAt, jti, family.getId());
     }
 
     /**
      * Builds a JWT token with user details and expiration time.
      *
-     * @param user the user data transfer object
-     * @param expirationTime token expiration time in milliseconds
+     * @param user      the user data transfer object
+     * @param expiresAt token expiration, in epoch milliseconds
+     * @param jti       the token id, or {@code null} for none
+     * @param family    the refresh-token family id, or {@code null} for access tokens
      * @return a signed JWT token as a String
      */
-    private String buildToken(UserDto user, long expirationTime) {
-        return Jwts.builder()
-                .setSubject(user.getEmail())
-                .claim("role", user.getRole().name())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(Keys.hmacShaKeyFor(getSecretKey()), SignatureAlgorithm.HS256)
-                .compact();
+    private String buildToken(UserDto user, long expiresAt, String jti, String family) {
+        long start = System.nanoTime();
+        String token = keyProvider.sign(Jwts.builder()
+                .id(jti)
+                .subject(user.getEmail())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(FAMILY_CLAIM, family)
+                .issuedAt(new Date())
+                .expiration(new Date(expiresAt)));
+        (family == null ? accessIssue : refreshIssue).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
+    }
+
+    private Timer issueTimer(String type) {
+        return Timer.builder("auth.jwt.issue")
+                .description("Time to build and sign a token")
+                .tag("type", type)
+                .register(meterRegistry);
     }
 
     /**
@@ -89,10 +170,9 @@ public class JwtService {
      * @return the claims contained in the token
      */
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(Keys.hmacShaKeyFor(getSecretKey()))
-                .parseClaimsJws(token)
-                .getBody();
+        return keyProvider.getParser()
+                .parseSignedClaims(token)
+                .getPayload();
     }
 
     /**
@@ -112,7 +192,31 @@ public class JwtService {
      * @return the role contained in the token claims
      */
     public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+        return extractAllClaims(token).get(ROLE_CLAIM, String.class);
+    }
+
+    /**
+     * Rebuilds the authenticated user from verified token claims, without calling the user-service.
+     *
+     * @param claims the verified claims of an access token
+     * @return a user carrying email, role and id, or {@code null} if the token lacks the role or
+     *         user id claims (tokens issued before they were added)
+     */
+    public UserDto userFromClaims(Claims claims) {
+        String role = claims.get(ROLE_CLAIM, String.class);
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        if (claims.getSubject() == null || role == null || userId == null) {
+            return null;
+        }
+        try {
+            return UserDto.builder()
+                    .id(userId)
+                    .email(claims.getSubject())
+                    .role(Role.valueOf(role))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
     /**
@@ -133,27 +237,110 @@ public class JwtService {
     /**
      * Builds a response map containing new access and refresh tokens based on a valid refresh token.
      *
+     * <p>Concurrent requests with the same refresh token, as sent by several browser tabs reconnecting
+     * at once, are collapsed: the token is verified, the user looked up and the new tokens signed only
+     * once, and every request receives that same response. Duplicates arriving within
+     * {@code auth.refresh-tokens.reuse-grace} after it completed receive it too.
+     *
      * @param refreshToken the refresh token request containing the refresh token string
-     * @return a map with new access_token, refresh_token, and user_id
-     * @throws IOException if user lookup fails
-     * @throws RuntimeException if the refresh token is invalid
+     * @return a Mono emitting a map with new access_token, refresh_token, and user_id,
+     *         failing with a RuntimeException if the refresh token is invalid or the user lookup fails
      */
-    public Map<String, Object> buildResponseRefreshToken(RefreshTokenRequest refreshToken) throws IOException {
-        if (!isTokenValid(refreshToken.getRefresToken())) {
-            throw new RuntimeException("Invalid refresh token");
+    public Mono<Map<String, Object>> buildResponseRefreshToken(RefreshTokenRequest refreshToken) {
+        String token = refreshToken.getRefresToken();
+        if (token == null) {
+            return Mono.error(new RuntimeException("Invalid refresh token"));
         }
+        Map<String, Object> recent = recentRefreshes.getIfPresent(token);
+        if (recent != null) {
+            return Mono.just(recent);
+        }
+        return refreshes.execute(token, () -> refresh(token)
+                .doOnNext(response -> recentRefreshes.put(token, response)));
+    }
 
-        String email = extractEmail(refreshToken.getRefresToken());
-        UserDto user = userService.findByEmail(email);
+    /**
+     * Verifies a refresh token, rotates it and issues a new token pair in the same family.
+     *
+     * <p>The token is only rotated once the user lookup succeeded, so a failing User service does not
+     * burn it. Presenting a token that was already rotated revokes its family, unless it was rotated
+     * within the reuse grace period and its response is no longer at hand, as when the duplicate is
+     * served by another instance; it is then exchanged again in the same family. Tokens issued before
+     * rotation was introduced carry no {@code jti}; they are recorded under a digest of the token, so
+     * each is accepted once and starts a new family.
+     *
+     * @param token the raw refresh token
+     * @return a Mono emitting a map with new access_token, refresh_token, and user_id
+     */
+    private Mono<Map<String, Object>> refresh(String token) {
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (Exception e) {
+            return Mono.error(new RuntimeException("Invalid refresh token"));
+        }
 
-        String newAccessToken = buildToken(user, expirationMillis);
-        String newRefreshToken = generateRefreshToken(user);
+        return userService.findByEmail(claims.getSubject())
+                .flatMap(user -> rotate(token, claims)
+                        .map(family -> Map.<String, Object>of(
+                                "access_token", generateToken(user),
+                                "refresh_token", generateRefreshToken(user, family),
+                                "user_id", user.getIdentification()
+                        )));
+    }
 
-        return Map.of(
-                "access_token", newAccessToken,
-                "refresh_token", newRefreshToken,
-                "user_id", user.getIdentification()
-        );
+    /**
+     * Rotates a verified refresh token in the {@link RefreshTokenStore}.
+     *
+     * @param token  the raw refresh token
+     * @param claims the verified claims of the refresh token
+     * @return a Mono emitting the family to issue the next token in, or failing if the token may not
+     *         be exchanged
+     */
+    private Mono<RefreshTokenStore.TokenFamily> rotate(String token, Claims claims) {
+        Mono<RefreshTokenStore.Rotation> rotated = claims.getId() != null
+                ? refreshTokenStore.rotate(claims)
+                : refreshTokenStore.rotateLegacy(digest(token), claims);
+        return rotated.flatMap(rotation -> switch (rotation.outcome()) {
+            case ROTATED, DUPLICATE -> Mono.just(rotation.family());
+            case REUSED -> Mono.error(new RuntimeException("Refresh token reuse detected"));
+            default -> Mono.error(new RuntimeException("Invalid refresh token"));
+        });
+    }
+
+    /**
+     * @return the URL-safe Base64 SHA-256 digest of a token, which identifies tokens issued without {@code jti}
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Revokes an access token and, when given, the rotation family of a refresh token of the same user.
+     *
+     * @param accessClaims the verified claims of the access token to revoke
+     * @param refreshToken a refresh token to revoke along with its family, or {@code null}
+     * @throws JwtException if the refresh token is invalid or belongs to another user
+     */
+    public void revoke(Claims accessClaims, String refreshToken) {
+        if (accessClaims.getId() != null && accessClaims.getExpiration() != null) {
+            revokedTokenList.revoke(accessClaims.getId(), accessClaims.getExpiration().getTime());
+        }
+        if (refreshToken == null) {
+            return;
+        }
+        Claims refreshClaims = extractAllClaims(refreshToken);
+        if (!accessClaims.getSubject().equals(refreshClaims.getSubject())) {
+            throw new JwtException("Refresh token belongs to another user");
+        }
+        if (refreshClaims.getId() != null) {
+            refreshTokenStore.revokeFamilyOf(refreshClaims);
+        }
     }
 
     /**
@@ -0,0 +1,135 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * One key of the {@link JwtKeyRing}, identified by its {@code kid}.
+ *
+ * <p>The {@code kid} is the RFC 7638 thumbprint of the key, so the same key material always gets the
+ * same id on every instance. A key becomes eligible for signing at {@code activatesAtMillis}, which
+ * lets new public keys be published before tokens signed with them appear, and is dropped from the
+ * ring at {@code retiresAtMillis}, once every token it signed has expired.
+ *
+ * @param kid               the key id
+ * @param signingKey        the private or secret key tokens are signed with
+ * @param verificationKey   the public or secret key tokens are verified with
+ * @param algorithm         the signature algorithm
+ * @param publicJwk         the public key to publish, {@code null} for HMAC keys
+ * @param signing           whether the key may become the signing key, or only verifies
+ * @param origin            where the key comes from: {@code property}, {@code generated} or {@code file:<name>}
+ * @param activatesAtMillis when the key may start signing, in epoch milliseconds
+ * @param retiresAtMillis   when the key is dropped, in epoch milliseconds, or {@link #NEVER}
+ */
+record JwtSigningKey(String kid, Key signingKey, Key verificationKey, SecureDigestAlgorithm<Key, ?> algorithm,
+                     PublicJwk<?> publicJwk, boolean signing, String origin, long activatesAtMillis,
+                     long retiresAtMillis) {
+
+    static final long NEVER = Long.MAX_VALUE;
+
+    static final String HS256 = "HS256";
+    static final String ES256 = "ES256";
+    static final String EDDSA = "EdDSA";
+
+    private static final String PEM_PREFIX = "-----BEGIN";
+
+    /**
+     * Builds an HMAC key from a Base64 encoded secret.
+     */
+    static JwtSigningKey hmac(String secretBase64, boolean signing, String origin, long activatesAtMillis) {
+        SecretKey key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secretBase64.trim()));
+        Jwk<?> jwk = Jwks.builder().key(key).idFromThumbprint().build();
+        return new JwtSigningKey(jwk.getId(), key, key, cast(Jwts.SIG.HS256), null, signing, origin,
+                activatesAtMillis, NEVER);
+    }
+
+    /**
+     * Builds an ES256 or EdDSA key from a private key; the algorithm follows the key type.
+     */
+    static JwtSigningKey asymmetric(PrivateKey privateKey, String origin, long activatesAtMillis) {
+        PrivateJwk<?, ?, ?> privateJwk = (PrivateJwk<?, ?, ?>) Jwks.builder().key(privateKey).idFromThumbprint().build();
+        PublicJwk<?> publicJwk = privateJwk.toPublicJwk();
+        SecureDigestAlgorithm<?, ?> algorithm = "EC".equals(privateKey.getAlgorithm()) ? Jwts.SIG.ES256 : Jwts.SIG.EdDSA;
+        return new JwtSigningKey(publicJwk.getId(), privateKey, publicJwk.toKey(), cast(algorithm), publicJwk, true,
+                origin, activatesAtMillis, NEVER);
+    }
+
+    /**
+     * Generates a fresh ES256 or EdDSA key pair.
+     *
+     * @throws IllegalArgumentException if the algorithm is not asymmetric
+     */
+    static JwtSigningKey generate(String algorithm, String origin, long activatesAtMillis) {
+        PrivateKey privateKey = switch (algorithm) {
+            case ES256 -> Jwts.SIG.ES256.keyPair().build().getPrivate();
+            case EDDSA -> Jwks.CRV.Ed25519.keyPair().build().getPrivate();
+            default -> throw new IllegalArgumentException("Cannot generate keys for JWT algorithm " + algorithm);
+        };
+        return asymmetric(privateKey, origin, activatesAtMillis);
+    }
+
+    /**
+     * Reads a key from text: a PKCS#8 PEM private key (EC P-256 or Ed25519) or a Base64 encoded HMAC secret.
+     *
+     * @throws IllegalArgumentException if the text is neither
+     */
+    static JwtSigningKey parse(String text, String origin, long activatesAtMillis) {
+        if (!text.strip().startsWith(PEM_PREFIX)) {
+            return hmac(text, true, origin, activatesAtMillis);
+        }
+        byte[] der = Base64.getDecoder().decode(
+                text.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", ""));
+        for (String keyAlgorithm : new String[]{"EC", "Ed25519"}) {
+            try {
+                PrivateKey privateKey = KeyFactory.getInstance(keyAlgorithm).generatePrivate(new PKCS8EncodedKeySpec(der));
+                return asymmetric(privateKey, origin, activatesAtMillis);
+            } catch (GeneralSecurityException e) {
+                // try the next key type
+            }
+        }
+        throw new IllegalArgumentException("Cannot read " + origin + " as a PKCS#8 EC or Ed25519 private key");
+    }
+
+    /**
+     * @return whether the algorithm is one this ring can generate and publish keys for
+     */
+    static boolean isAsymmetric(String algorithm) {
+        return ES256.equals(algorithm) || EDDSA.equals(algorithm);
+    }
+
+    JwtSigningKey withSigning(boolean signing) {
+        return new JwtSigningKey(kid, signingKey, verificationKey, algorithm, publicJwk, signing, origin,
+                activatesAtMillis, retiresAtMillis);
+    }
+
+    JwtSigningKey retiringAt(long millis) {
+        return new JwtSigningKey(kid, signingKey, verificationKey, algorithm, publicJwk, signing, origin,
+                activatesAtMillis, millis);
+    }
+
+    boolean isRetiring() {
+        return retiresAtMillis != NEVER;
+    }
+
+    boolean isFromFile() {
+        return origin.startsWith("file:");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SecureDigestAlgorithm<Key, ?> cast(SecureDigestAlgorithm<?, ?> algorithm) {
+        return (SecureDigestAlgorithm<Key, ?>) algorithm;
+    }
+}
@@ -0,0 +1,164 @@
+package com.code_room.auth_service.config.jwt;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Path patterns compiled into a character trie, so finding the policy of a path walks it once
+ * without splitting or allocating.
+ *
+ * <p>Literal segments are followed character by character; at each segment boundary the trie may
+ * also branch into a {@code *} node, which consumes one whole segment, or end in a {@code **}
+ * policy, which covers the rest of the path. Patterns are compared segment by segment from the left,
+ * and at each segment a literal beats {@code *}, which beats {@code **}. So {@code /admin/**} wins over
+ * {@code /*}{@code /public} for {@code /admin/public}: a wildcard rule never opens up a path below a more
+ * specific prefix. A pattern ending in {@code /**} also matches the path without that suffix.
+ */
+public final class PathPolicyMatcher {
+
+    private final Node root = new Node();
+    private final AuthPolicy defaultPolicy;
+
+    private PathPolicyMatcher(AuthPolicy defaultPolicy) {
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    /**
+     * Compiles the rules; a later rule replaces an earlier one with the same pattern.
+     *
+     * @param defaultPolicy the policy of paths no rule matches
+     * @param rules         the rules to compile
+     * @return the matcher
+     * @throws IllegalArgumentException if a pattern is not absolute or has {@code **} before its end
+     */
+    public static PathPolicyMatcher compile(AuthPolicy defaultPolicy, List<PathPolicyProperties.Rule> rules) {
+        PathPolicyMatcher matcher = new PathPolicyMatcher(defaultPolicy);
+        for (PathPolicyProperties.Rule rule : rules) {
+            matcher.add(rule.getPattern(), AuthPolicy.of(rule.getPolicy(), rule.getRoles()));
+        }
+        return matcher;
+    }
+
+    private void add(String pattern, AuthPolicy policy) {
+        if (pattern == null || !pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Path pattern must start with /: " + pattern);
+        }
+        String[] segments = pattern.split("/", -1);
+        Node node = root;
+        for (int s = 0; s < segments.length; s++) {
+            String segment = segments[s];
+            if (segment.equals("**")) {
+                if (s != segments.length - 1) {
+                    throw new IllegalArgumentException("** must be the last segment: " + pattern);
+                }
+                node.remainder = policy;
+                return;
+            }
+            if (segment.equals("*")) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                for (int i = 0; i < segment.length(); i++) {
+                    node = node.addChild(segment.charAt(i));
+                }
+            }
+            if (s < segments.length - 1) {
+                node = node.addChild('/');
+            }
+        }
+        node.exact = policy;
+    }
+
+    /**
+     * Returns the policy of a request path.
+     *
+     * @param path the decoded request path, without query string
+     * @return the most specific matching policy, or the default policy
+     */
+    public AuthPolicy match(String path) {
+        AuthPolicy policy = matchSegment(root, path, 0);
+        return policy != null ? policy : defaultPolicy;
+    }
+
+    /**
+     * Matches the path from {@code pos}, the start of a segment, against the trie from {@code node}.
+     */
+    private static AuthPolicy matchSegment(Node node, String path, int pos) {
+        int length = path.length();
+        if (pos == length) {
+            return node.exact != null ? node.exact : node.remainder;
+        }
+        int end = path.indexOf('/', pos);
+        if (end < 0) {
+            end = length;
+        }
+
+        Node literal = node;
+        for (int i = pos; i < end && literal != null; i++) {
+            literal = literal.child(path.charAt(i));
+        }
+        AuthPolicy policy = literal != null ? afterSegment(literal, path, end) : null;
+        if (policy == null && node.wildcard != null && end > pos) {
+            policy = afterSegment(node.wildcard, path, end);
+        }
+        return policy != null ? policy : node.remainder;
+    }
+
+    /**
+     * Continues after a segment ending at {@code end}, which is the path length or a {@code /}.
+     */
+    private static AuthPolicy afterSegment(Node node, String path, int end) {
+        Node slash = node.child('/');
+        if (end == path.length()) {
+            if (node.exact != null) {
+                return node.exact;
+            }
+            return slash != null ? slash.remainder : null;
+        }
+        return slash != null ? matchSegment(slash, path, end + 1) : null;
+    }
+
+    private static final class Node {
+
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+
+        /**
+         * Node reached by a {@code *} segment.
+         */
+        private Node wildcard;
+
+        /**
+         * Policy of a pattern ending here.
+         */
+        private AuthPolicy exact;
+
+        /**
+         * Policy of a pattern ending in {@code **} here.
+         */
+        private AuthPolicy remainder;
+
+        Node child(char label) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == label) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node addChild(char label) {
+            Node child = child(label);
+            if (child == null) {
+                child = new Node();
+                labels = Arrays.copyOf(labels, labels.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                labels[labels.length - 1] = label;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.code_room.auth_service.config.jwt;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Authentication policies of the gateway routes, bound from {@code jwt.policies}.
+ *
+ * <p>Rules map path patterns to a policy. A pattern is a list of {@code /} separated segments where
+ * {@code *} matches exactly one segment and a final {@code **} matches any remainder, including none.
+ */
+@Data
+@ConfigurationProperties(prefix = "jwt.policies")
+public class PathPolicyProperties {
+
+    /**
+     * Policy of paths no rule matches.
+     */
+    private AuthPolicy.Type defaultPolicy = AuthPolicy.Type.BEARER;
+
+    /**
+     * Policy of WebSocket upgrade requests, which browsers cannot send an Authorization header with.
+     */
+    private AuthPolicy.Type websocketUpgrade = AuthPolicy.Type.ANONYMOUS;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * A path pattern and its policy.
+     */
+    @Data
+    public static class Rule {
+
+        private String pattern;
+
+        private AuthPolicy.Type policy = AuthPolicy.Type.BEARER;
+
+        /**
+         * Accepted roles when the policy is {@code role}.
+         */
+        private Set<String> roles = new LinkedHashSet<>();
+    }
+}
@@ -0,0 +1,462 @@
+package com.code_room.auth_service.config.jwt;
+
+import com.code_room.auth_service.infrastructure.persistence.RefreshTokenRepository;
+import com.code_room.auth_service.infrastructure.persistence.dto.RefreshTokenRecord;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Tracks issued refresh tokens so each one can be exchanged exactly once.
+ *
+ * <p>Every refresh token carries a {@code jti} and belongs to a family, the chain of tokens that
+ * descend from one login. Exchanging a token marks it rotated; presenting a rotated token again means
+ * it was copied, so the whole family is revoked and its owner has to log in again, unless it comes
+ * within {@code auth.refresh-tokens.reuse-grace} of the rotation: a client retrying a refresh whose
+ * response it lost, or another tab racing it, is not an attacker. Rotation outcomes are counted in the
+ * {@code auth.refresh-tokens.rotations} metric.
+ *
+ * <p>Without a {@link RefreshTokenRepository}, the default, the store lives in memory, keyed by
+ * {@code jti}, and every token is dropped at its own expiration, so checks on {@code /auth/refresh}
+ * are a single hash lookup. This only suits a single instance, and a restart forgets every token, so
+ * users log in again afterwards. With {@code auth.refresh-tokens.adopt-after-restart} set, tokens
+ * signed before the instance started are instead adopted the first time they are presented. Logouts
+ * and rotations from before the restart are lost then: a family revoked at logout, or a token already
+ * exchanged, is accepted once more. Deployments that need revocation to survive restarts use the
+ * repository.
+ *
+ * <p>With a repository, {@code auth.refresh-tokens.store=jdbc}, the repository is the source of
+ * truth and instances can share it: rotations are claimed there with a conditional update on the
+ * {@code blockingScheduler}, so a token rotated on one instance is known as rotated on all of them.
+ * New tokens are written through in order on a dedicated thread; until the write lands, the
+ * issuing instance answers from its own memory.
+ */
+@Component
+public class RefreshTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    /**
+     * Result of presenting a refresh token.
+     */
+    public enum Outcome {
+        /** The token was active and is now rotated; a new token may be issued in its family. */
+        ROTATED,
+        /** The token had been rotated within the reuse grace period; its family stays valid. */
+        DUPLICATE,
+        /** The token had already been rotated before the grace period; its family is now revoked. */
+        REUSED,
+        /** The token's family had been revoked. */
+        REVOKED,
+        /** The token was not issued by this store or has expired. */
+        UNKNOWN
+    }
+
+    /**
+     * Outcome of {@link #rotate(Claims)}, with the family of the token when it is known.
+     */
+    public record Rotation(Outcome outcome, TokenFamily family) {
+    }
+
+    @Autowired(required = false)
+    private RefreshTokenRepository repository;
+
+    @Autowired
+    @Qualifier("blockingScheduler")
+    private Scheduler blockingScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.refresh-tokens.cleanup-interval:1h}")
+    private Duration cleanupInterval;
+
+    @Value("${auth.refresh-tokens.reuse-grace:10s}")
+    private Duration reuseGrace;
+
+    @Value("${auth.refresh-tokens.adopt-after-restart:false}")
+    private boolean adoptAfterRestart;
+
+    private Cache<String, TokenEntry> tokens;
+
+    /**
+     * Families by id, held only as long as one of their tokens is, so tokens adopted after a restart
+     * join the family of the tokens already adopted.
+     */
+    private Cache<String, TokenFamily> families;
+
+    /**
+     * Start of this instance, in epoch milliseconds truncated to the second like {@code iat}; unknown
+     * tokens signed before it may be adopted.
+     */
+    private long startedAtMillis;
+
+    /**
+     * Single thread applying repository writes in order, {@code null} without a repository.
+     */
+    private Scheduler writer;
+
+    private final Map<Outcome, Counter> rotations = new EnumMap<>(Outcome.class);
+
+    @PostConstruct
+    void init() {
+        startedAtMillis = TimeUnit.SECONDS.toMillis(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+        tokens = Caffeine.newBuilder()
+                .expireAfter(new ExpireAtTokenExpiration())
+                .build();
+        families = Caffeine.newBuilder()
+                .weakValues()
+                .build();
+        meterRegistry.gauge("auth.refresh-tokens.tracked", tokens, Cache::estimatedSize);
+        for (Outcome outcome : Outcome.values()) {
+            rotations.put(outcome, Counter.builder("auth.refresh-tokens.rotations")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+
+        if (repository != null) {
+            writer = Schedulers.newSingle("refresh-token-store");
+            writer.schedulePeriodically(() -> write(repo -> repo.deleteExpired(System.currentTimeMillis())),
+                    cleanupInterval.toMillis(), cleanupInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (writer != null) {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Starts a new family, as on login.
+     *
+     * @param subject the email of the user logging in
+     * @return the new family
+     */
+    public TokenFamily newFamily(String subject) {
+        return new TokenFamily(UUID.randomUUID().toString(), subject, false);
+    }
+
+    /**
+     * Registers a new refresh token in a family.
+     *
+     * @param family          the family of the token
+     * @param expiresAtMillis the token expiration, in epoch milliseconds
+     * @return the {@code jti} to put in the token
+     */
+    public String issue(TokenFamily family, long expiresAtMillis) {
+        String jti = UUID.randomUUID().toString();
+        families.put(family.getId(), family);
+        tokens.put(jti, new TokenEntry(family, expiresAtMillis, 0));
+        persist(repo -> repo.save(new RefreshTokenRecord(jti, family.getId(), family.getSubject(),
+                expiresAtMillis, 0, family.isRevoked())));
+        return jti;
+    }
+
+    /**
+     * Exchanges a refresh token, marking it rotated if it was still active.
+     *
+     * @param claims the verified claims of the presented token
+     * @return a Mono emitting the outcome, with the token's family unless it is {@link Outcome#UNKNOWN}
+     */
+    public Mono<Rotation> rotate(Claims claims) {
+        if (repository == null) {
+            return Mono.fromSupplier(() -> count(rotateInMemory(claims.getId(), claims)));
+        }
+        return Mono.fromCallable(() -> count(rotateInRepository(claims.getId(), claims)))
+                .subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * Exchanges a refresh token issued before rotation was introduced, which carries neither a
+     * {@code jti} nor a family. The first time, it is recorded under the given key as rotated, in a new
+     * family; presenting it again is handled like any rotated token.
+     *
+     * @param key    a stable id of the token, such as a digest of it
+     * @param claims the verified claims of the presented token
+     * @return a Mono emitting the outcome, with the token's family unless it is {@link Outcome#UNKNOWN}
+     */
+    public Mono<Rotation> rotateLegacy(String key, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return Mono.fromSupplier(() -> count(new Rotation(Outcome.UNKNOWN, null)));
+        }
+        if (repository == null) {
+            return Mono.fromSupplier(() -> {
+                TokenFamily family = newFamily(claims.getSubject());
+                long now = System.currentTimeMillis();
+                if (tokens.asMap().putIfAbsent(key,
+                        new TokenEntry(family, claims.getExpiration().getTime(), now)) == null) {
+                    families.put(family.getId(), family);
+                    return count(new Rotation(Outcome.ROTATED, family));
+                }
+                return count(rotateInMemory(key, claims));
+            });
+        }
+        return Mono.fromCallable(() -> {
+            TokenFamily family = newFamily(claims.getSubject());
+            long now = System.currentTimeMillis();
+            if (repository.saveIfAbsent(new RefreshTokenRecord(key, family.getId(), family.getSubject(),
+                    claims.getExpiration().getTime(), now, false))) {
+                families.put(family.getId(), family);
+                return count(new Rotation(Outcome.ROTATED, family));
+            }
+            return count(rotateInRepository(key, claims));
+        }).subscribeOn(blockingScheduler);
+    }
+
+    private Rotation rotateInMemory(String jti, Claims claims) {
+        long now = System.currentTimeMillis();
+        TokenEntry entry = tokens.getIfPresent(jti);
+        if (entry == null) {
+            if (!adoptable(claims, now)) {
+                return new Rotation(Outcome.UNKNOWN, null);
+            }
+            TokenFamily family = families.get(familyId(claims), id -> new TokenFamily(id, claims.getSubject(), false));
+            TokenEntry adopted = new TokenEntry(family, claims.getExpiration().getTime(), now);
+            entry = tokens.asMap().putIfAbsent(jti, adopted);
+            if (entry == null) {
+                if (family.adopted.getAndIncrement() > 0) {
+                    // another token of this family was already adopted, so one of them is a stale copy
+                    return reused(family);
+                }
+                return new Rotation(family.isRevoked() ? Outcome.REVOKED : Outcome.ROTATED, family);
+            }
+        }
+
+        if (entry.expiresAtMillis <= now) {
+            return new Rotation(Outcome.UNKNOWN, null);
+        } else if (entry.family.isRevoked()) {
+            return new Rotation(Outcome.REVOKED, entry.family);
+        } else if (entry.rotatedAtMillis.compareAndSet(0, now)) {
+            persist(repo -> repo.markRotated(jti, now));
+            return new Rotation(Outcome.ROTATED, entry.family);
+        } else if (now - entry.rotatedAtMillis.get() < reuseGrace.toMillis()) {
+            return new Rotation(Outcome.DUPLICATE, entry.family);
+        }
+        return reused(entry.family);
+    }
+
+    private Rotation rotateInRepository(String jti, Claims claims) {
+        long now = System.currentTimeMillis();
+        RefreshTokenRecord record = repository.findByJti(jti).orElse(null);
+        if (record == null) {
+            // issued here moments ago and not written yet, or not issued at all
+            return rotateInMemory(jti, claims);
+        }
+
+        TokenFamily family = families.get(record.familyId(),
+                id -> new TokenFamily(id, record.subject(), record.revoked()));
+        if (record.expiresAtMillis() <= now) {
+            return new Rotation(Outcome.UNKNOWN, null);
+        } else if (record.revoked() || family.isRevoked()) {
+            family.revoked = true;
+            return new Rotation(Outcome.REVOKED, family);
+        } else if (repository.markRotated(jti, now)) {
+            TokenEntry entry = tokens.getIfPresent(jti);
+            if (entry != null) {
+                entry.rotatedAtMillis.compareAndSet(0, now);
+            }
+            return new Rotation(Outcome.ROTATED, family);
+        }
+
+        long rotatedAtMillis = repository.findByJti(jti)
+                .map(RefreshTokenRecord::rotatedAtMillis)
+                .orElse(0L);
+        if (now - rotatedAtMillis < reuseGrace.toMillis()) {
+            return new Rotation(Outcome.DUPLICATE, family);
+        }
+        return reused(family);
+    }
+
+    private Rotation reused(TokenFamily family) {
+        log.warn("Refresh token reuse detected, revoking token family {}", family.getId());
+        revoke(family);
+        return new Rotation(Outcome.REUSED, family);
+    }
+
+    private Rotation count(Rotation rotation) {
+        rotations.get(rotation.outcome()).increment();
+        return rotation;
+    }
+
+    /**
+     * Whether an unknown token may be adopted: only when enabled and in memory, only for tokens that
+     * carry a family and were signed before this instance started, and so may have been issued by its
+     * predecessor.
+     */
+    private boolean adoptable(Claims claims, long now) {
+        return adoptAfterRestart
+                && repository == null
+                && familyId(claims) != null
+                && claims.getSubject() != null
+                && claims.getIssuedAt() != null && claims.getIssuedAt().getTime() < startedAtMillis
+                && claims.getExpiration() != null && claims.getExpiration().getTime() > now;
+    }
+
+    private static String familyId(Claims claims) {
+        return claims.get(JwtService.FAMILY_CLAIM, String.class);
+    }
+
+    /**
+     * Revokes every token of a family, current and future.
+     *
+     * @param family the family to revoke
+     */
+    public void revoke(TokenFamily family) {
+        family.revoked = true;
+        persist(repo -> repo.revokeFamily(family.getId()));
+    }
+
+    /**
+     * Revokes the family of a token, as on logout.
+     *
+     * @param claims the verified claims of a token of the family
+     * @return {@code false} if the token carries no family
+     */
+    public boolean revokeFamilyOf(Claims claims) {
+        TokenEntry entry = tokens.getIfPresent(claims.getId());
+        if (entry != null) {
+            revoke(entry.family);
+            return true;
+        }
+        String familyId = familyId(claims);
+        if (familyId == null) {
+            return false;
+        }
+        TokenFamily family = families.get(familyId, id -> new TokenFamily(id, claims.getSubject(), false));
+        if (claims.getExpiration() != null) {
+            // keeps the revoked family known for as long as the token could be presented
+            tokens.asMap().putIfAbsent(claims.getId(),
+                    new TokenEntry(family, claims.getExpiration().getTime(), System.currentTimeMillis()));
+        }
+        revoke(family);
+        return true;
+    }
+
+    private void persist(Consumer<RefreshTokenRepository> change) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.schedule(() -> write(change));
+        } catch (RejectedExecutionException e) {
+            log.error("Refresh token store is shut down, change not persisted", e);
+        }
+    }
+
+    private void write(Consumer<RefreshTokenRepository> change) {
+        try {
+            change.accept(repository);
+        } catch (RuntimeException e) {
+            log.error("Could not persist refresh token change", e);
+        }
+    }
+
+    /**
+     * A chain of refresh tokens descending from one login.
+     */
+    public static final class TokenFamily {
+
+        private final String id;
+        private final String subject;
+        private volatile boolean revoked;
+
+        /**
+         * Number of tokens of the family adopted after a restart.
+         */
+        private final AtomicLong adopted = new AtomicLong();
+
+        private TokenFamily(String id, String subject, boolean revoked) {
+            this.id = id;
+            this.subject = subject;
+            this.revoked = revoked;
+        }
+
+        /**
+         * @return the family id, carried in the {@code fam} claim of its tokens
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * @return the email of the user the family was issued to
+         */
+        public String getSubject() {
+            return subject;
+        }
+
+        /**
+         * @return whether the family has been revoked
+         */
+        public boolean isRevoked() {
+            return revoked;
+        }
+    }
+
+    private static final class TokenEntry {
+
+        private final TokenFamily family;
+        private final long expiresAtMillis;
+
+        /**
+         * When the token was exchanged, in epoch milliseconds, or {@code 0} while it is active.
+         */
+        private final AtomicLong rotatedAtMillis;
+
+        private TokenEntry(TokenFamily family, long expiresAtMillis, long rotatedAtMillis) {
+            this.family = family;
+            this.expiresAtMillis = expiresAtMillis;
+            this.rotatedAtMillis = new AtomicLong(rotatedAtMillis);
+        }
+
+        long nanosToLive() {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAtMillis - System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Expires each entry at the expiration of the token it tracks.
+     */
+    private static class ExpireAtTokenExpiration implements Expiry<String, TokenEntry> {
+
+        @Override
+        public long expireAfterCreate(String key, TokenEntry value, long currentTime) {
+            return value.nanosToLive();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenEntry value, long currentTime, long currentDuration) {
+            return value.nanosToLive();
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenEntry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Thrown when a correctly signed, unexpired token has been revoked.
+ */
+public class RevokedTokenException extends JwtException {
+
+    public RevokedTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,231 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Revoked access tokens, checked on every authenticated request.
+ *
+ * <p>Revoked {@code jti}s are grouped into buckets by the expiration of their token. Each bucket
+ * pairs a Bloom filter with the exact set of its ids, and the buckets sit in a ring indexed by
+ * expiration time. A check therefore goes straight to the one bucket that could hold the token;
+ * for a token that was not revoked the answer almost always comes from that bucket's bit array,
+ * without hashing into a map. Once every token of a bucket has expired the bucket is dropped, at
+ * the latest when its slot is reused for a later window, so memory stays bounded by the number of
+ * tokens revoked within one access-token lifetime. Tokens that outlive the ring, because
+ * {@code jwt.expiration} was lowered while they were live, are kept in a plain set until they expire.
+ *
+ * <p>Buckets are {@code auth.revocation.bucket-width} wide, and each Bloom filter is sized for
+ * {@code auth.revocation.expected-per-bucket} ids at a {@code auth.revocation.false-positive-rate}.
+ * The list is held in memory only.
+ */
+@Component
+public class RevokedTokenList {
+
+    @Value("${jwt.expiration}")
+    private long expirationMillis;
+
+    @Value("${auth.revocation.bucket-width:5m}")
+    private Duration bucketWidth;
+
+    @Value("${auth.revocation.expected-per-bucket:10000}")
+    private int expectedPerBucket;
+
+    @Value("${auth.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long bucketWidthMillis;
+
+    private AtomicReferenceArray<Bucket> ring;
+
+    private int bloomBits;
+
+    private int bloomHashes;
+
+    /**
+     * Revoked tokens expiring beyond the last window of the ring, by id, with their expiration.
+     */
+    private final Map<String, Long> beyondHorizon = new ConcurrentHashMap<>();
+
+    /**
+     * Number of revoked ids held, so the common case of no revocations returns immediately.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Time from which the buckets of the current window have expired and can be dropped.
+     */
+    private volatile long nextSweepMillis;
+
+    @PostConstruct
+    void init() {
+        bucketWidthMillis = bucketWidth.toMillis();
+        // one bucket per window a live token can expire in, plus the one being filled
+        ring = new AtomicReferenceArray<>((int) Math.ceilDiv(expirationMillis, bucketWidthMillis) + 2);
+        double ln2 = Math.log(2);
+        bloomBits = Math.max(64, (int) Math.ceil(-expectedPerBucket * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        bloomHashes = Math.max(1, (int) Math.round((double) bloomBits / expectedPerBucket * ln2));
+        meterRegistry.gauge("auth.revocation.size", size);
+    }
+
+    /**
+     * Revokes an access token until it expires.
+     *
+     * @param jti             the token id
+     * @param expiresAtMillis the token expiration, in epoch milliseconds
+     */
+    public void revoke(String jti, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        sweep(now);
+        long window = expiresAtMillis / bucketWidthMillis;
+        long currentWindow = now / bucketWidthMillis;
+        if (window - currentWindow >= ring.length() - 1) {
+            if (beyondHorizon.put(jti, expiresAtMillis) == null) {
+                size.incrementAndGet();
+            }
+            return;
+        }
+        int slot = slot(window);
+        while (true) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.window == window) {
+                bucket.add(jti);
+                return;
+            }
+            Bucket fresh = new Bucket(window, bloomBits, bloomHashes);
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                if (bucket != null) {
+                    size.addAndGet(-bucket.ids.size());
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether an access token has been revoked.
+     *
+     * @param jti             the token id
+     * @param expiresAtMillis the token expiration, in epoch milliseconds
+     * @return {@code true} if the token was revoked
+     */
+    public boolean isRevoked(String jti, long expiresAtMillis) {
+        if (size.get() == 0) {
+            return false;
+        }
+        sweep(System.currentTimeMillis());
+        long window = expiresAtMillis / bucketWidthMillis;
+        Bucket bucket = ring.get(slot(window));
+        if (bucket != null && bucket.window == window && bucket.mightContain(jti) && bucket.ids.contains(jti)) {
+            return true;
+        }
+        return !beyondHorizon.isEmpty() && beyondHorizon.containsKey(jti);
+    }
+
+    /**
+     * Drops the buckets and the tokens beyond the horizon whose tokens have all expired, once per window.
+     */
+    private void sweep(long now) {
+        if (now < nextSweepMillis) {
+            return;
+        }
+        long currentWindow = now / bucketWidthMillis;
+        nextSweepMillis = (currentWindow + 1) * bucketWidthMillis;
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.window < currentWindow && ring.compareAndSet(slot, bucket, null)) {
+                size.addAndGet(-bucket.ids.size());
+            }
+        }
+        beyondHorizon.forEach((jti, expiresAtMillis) -> {
+            if (expiresAtMillis <= now && beyondHorizon.remove(jti, expiresAtMillis)) {
+                size.decrementAndGet();
+            }
+        });
+    }
+
+    private int slot(long window) {
+        return (int) Math.floorMod(window, (long) ring.length());
+    }
+
+    /**
+     * Revoked ids of the tokens expiring within one window.
+     */
+    private final class Bucket {
+
+        private final long window;
+        private final AtomicLongArray bits;
+        private final int hashes;
+        private final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        Bucket(long window, int bitCount, int hashes) {
+            this.window = window;
+            this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+            this.hashes = hashes;
+        }
+
+        void add(String jti) {
+            long hash = hash64(jti);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            int bitCount = bits.length() << 6;
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long current;
+                while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                    Thread.onSpinWait();
+                }
+            }
+            // set the bits before publishing the id, so a reader that sees the id also sees them
+            if (ids.add(jti)) {
+                size.incrementAndGet();
+            }
+        }
+
+        boolean mightContain(String jti) {
+            long hash = hash64(jti);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            int bitCount = bits.length() << 6;
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units, finished with the SplitMix64 mixer so both halves are usable.
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
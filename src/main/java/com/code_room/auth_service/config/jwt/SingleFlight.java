@@ -0,0 +1,61 @@
+package com.code_room.auth_service.config.jwt;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one computation whose outcome is shared.
+ *
+ * <p>The first caller for a key starts the computation; callers arriving while it is in flight
+ * receive the same value, emptiness or error. The key is released as soon as the computation
+ * completes, so later calls start a fresh one. A caller cancelling its subscription does not cancel
+ * the shared computation.
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the computation for a key, or joins the one already in flight.
+     *
+     * @param key         the key identifying duplicate calls
+     * @param computation supplies the computation; only invoked by the first caller
+     * @return a Mono emitting the shared outcome
+     */
+    Mono<V> execute(K key, Supplier<Mono<V>> computation) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+            if (existing != null) {
+                return Mono.fromFuture(existing, true);
+            }
+
+            Mono.defer(computation).subscribe(
+                    value -> complete(key, future, value),
+                    error -> {
+                        inFlight.remove(key, future);
+                        future.completeExceptionally(error);
+                    },
+                    () -> complete(key, future, null));
+            return Mono.fromFuture(future, true);
+        });
+    }
+
+    /**
+     * @return the number of keys with a computation in flight
+     */
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private void complete(K key, CompletableFuture<V> future, V value) {
+        inFlight.remove(key, future);
+        future.complete(value);
+    }
+}
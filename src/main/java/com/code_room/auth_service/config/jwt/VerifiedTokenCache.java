@@ -0,0 +1,150 @@
+package com.code_room.auth_service.config.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in, size-bounded cache of tokens that already passed signature verification.
+ *
+ * <p>Entries are keyed by the signature segment of the token, which is already a digest of the
+ * header and payload, and hold the full token so a hit is only served for an exact match. Each entry
+ * expires at the token's own {@code exp}, so an expired token always goes back to full verification
+ * and is rejected there. Tokens can be dropped explicitly with {@link #invalidate(String)}.
+ *
+ * <p>Enabled with {@code jwt.cache.enabled=true}; hits, misses and evictions are published as
+ * {@code cache.*} metrics tagged {@code cache=jwt.verified-tokens}. Cached {@link Claims} are shared
+ * between requests and must be treated as read-only.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+
+    @Value("${jwt.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long maxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Underlying cache, {@code null} while the cache is disabled.
+     */
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpireAtTokenExpiration())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the claims of a previously verified token.
+     *
+     * @param token the raw JWT
+     * @return the cached claims, or {@code null} on a miss or if the token has expired
+     */
+    public Claims get(String token) {
+        if (cache == null) {
+            return null;
+        }
+        VerifiedToken verified = cache.getIfPresent(digest(token));
+        if (verified == null || !verified.token().equals(token)) {
+            return null;
+        }
+        if (verified.expiresAtMillis() <= System.currentTimeMillis()) {
+            cache.invalidate(digest(token));
+            return null;
+        }
+        return verified.claims();
+    }
+
+    /**
+     * Remembers the claims of a token that has just been verified.
+     * Tokens without an {@code exp} claim are not cached.
+     *
+     * @param token  the raw JWT
+     * @param claims the verified claims of the token
+     */
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (cache == null || expiration == null) {
+            return;
+        }
+        cache.put(digest(token), new VerifiedToken(token, claims, expiration.getTime()));
+    }
+
+    /**
+     * Removes a token from the cache, forcing the next use through full verification.
+     *
+     * @param token the raw JWT
+     */
+    public void invalidate(String token) {
+        if (cache != null) {
+            cache.invalidate(digest(token));
+        }
+    }
+
+    /**
+     * @return hit, miss and eviction statistics, or {@link CacheStats#empty()} when disabled
+     */
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    /**
+     * Uses the signature segment as the cache key; it is already a MAC over the rest of the token.
+     */
+    private static String digest(String token) {
+        return token.substring(token.lastIndexOf('.') + 1);
+    }
+
+    private record VerifiedToken(String token, Claims claims, long expiresAtMillis) {
+
+        long nanosToLive() {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAtMillis - System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Expires each entry at the {@code exp} of the token it holds; reads do not extend it.
+     */
+    private static class ExpireAtTokenExpiration implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return value.nanosToLive();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return value.nanosToLive();
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.code_room.auth_service.config.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Limits login and registration attempts per client address and per account.
+ *
+ * <p>Credential stuffing either hammers one account from many addresses or many accounts from one
+ * address; checking both keys stops each pattern before the attempt reaches the User service. Every
+ * limit is a {@link TokenBucketSketch}, so memory is fixed however many addresses and emails are seen.
+ * Rejections are counted as {@code auth.rate-limit.rejected{route,key}}.
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class AuthRateLimiter {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Limiter> clientLimiters = new HashMap<>();
+    private final Map<String, Limiter> accountLimiters = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        properties.getRoutes().forEach((route, limits) -> {
+            if (limits.getClient() != null) {
+                clientLimiters.put(route, limiter(route, "client", limits.getClient()));
+            }
+            if (limits.getAccount() != null) {
+                accountLimiters.put(route, limiter(route, "account", limits.getAccount()));
+            }
+        });
+    }
+
+    /**
+     * Takes a token for the client and, if given, the account of a request to a route.
+     *
+     * @param route   the route name under {@code auth.rate-limit.routes}
+     * @param request the incoming request
+     * @param email   the account the request targets, or {@code null}
+     * @return {@code null} if the request may proceed, otherwise how long the caller should wait
+     */
+    public Duration check(String route, ServerHttpRequest request, String email) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Duration wait = acquire(clientLimiters.get(route), ClientAddress.of(request, properties.isTrustForwardedFor()));
+        if (wait == null && email != null && !email.isBlank()) {
+            wait = acquire(accountLimiters.get(route), email.trim().toLowerCase(Locale.ROOT));
+        }
+        return wait;
+    }
+
+    private static Duration acquire(Limiter limiter, String key) {
+        if (limiter == null) {
+            return null;
+        }
+        long waitNanos = limiter.sketch().tryAcquire(key);
+        if (waitNanos == 0) {
+            return null;
+        }
+        limiter.rejected().increment();
+        return Duration.ofNanos(waitNanos);
+    }
+
+    private Limiter limiter(String route, String key, RateLimitProperties.Limit limit) {
+        TokenBucketSketch sketch = new TokenBucketSketch(limit.getCapacity(), limit.getPeriod(),
+                properties.getDepth(), properties.getWidth());
+        Counter rejected = Counter.builder("auth.rate-limit.rejected")
+                .tag("route", route)
+                .tag("key", key)
+                .register(meterRegistry);
+        return new Limiter(sketch, rejected);
+    }
+
+    private record Limiter(TokenBucketSketch sketch, Counter rejected) {
+    }
+}
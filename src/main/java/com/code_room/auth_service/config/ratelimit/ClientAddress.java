@@ -0,0 +1,37 @@
+package com.code_room.auth_service.config.ratelimit;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Resolves the client address requests are attributed to by the rate limits.
+ */
+final class ClientAddress {
+
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+    private static final String UNKNOWN_CLIENT = "unknown";
+
+    private ClientAddress() {
+    }
+
+    /**
+     * @param request           the incoming request
+     * @param trustForwardedFor whether to use the first {@code X-Forwarded-For} address when present
+     * @return the client address, or {@code unknown}
+     */
+    static String of(ServerHttpRequest request, boolean trustForwardedFor) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeaders().getFirst(FORWARDED_FOR_HEADER);
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return UNKNOWN_CLIENT;
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+}
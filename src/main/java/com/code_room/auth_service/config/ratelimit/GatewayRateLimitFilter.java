@@ -0,0 +1,123 @@
+package com.code_room.auth_service.config.ratelimit;
+
+import com.code_room.auth_service.config.jwt.JwtClaimsResolver;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global Gateway filter applying per-route and per-subject token-bucket limits.
+ *
+ * <p>Runs right after {@code JwtAuthenticationFilter}. The subject is the verified token subject, the
+ * value forwarded as the {@code user-id} header, or the client address for requests that skip
+ * authentication such as WebSockets. A request is charged against its subject first, so one abusive
+ * caller is turned away before it drains the budget of the whole route; if the route then rejects it,
+ * the subject's token is given back, so a busy route does not also use up its callers' budgets.
+ * Rejected requests get 429 with a {@code Retry-After} header and are counted as
+ * {@code auth.rate-limit.rejected{route,key}}.
+ */
+@Component
+@Order(1)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class GatewayRateLimitFilter implements GlobalFilter {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private RateLimitStore store;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Resolved limits by route id, so a request does not build limit names or look up counters.
+     */
+    private final Map<String, RouteLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.getGateway().isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        RouteLimiter limiter = limiters.computeIfAbsent(route.getId(), this::limiter);
+
+        Mono<Duration> wait = RateLimitStore.ALLOWED;
+        String subject = limiter.subject() != null ? subject(exchange) : null;
+        if (subject != null) {
+            wait = store.tryAcquire(limiter.subjectName(), limiter.subject(), subject);
+        }
+        if (limiter.route() != null) {
+            wait = wait.flatMap(subjectWait -> subjectWait.isZero()
+                    ? store.tryAcquire(limiter.routeName(), limiter.route(), route.getId())
+                            .flatMap(routeWait -> routeWait.isZero() || subject == null
+                                    ? Mono.just(routeWait)
+                                    : store.release(limiter.subjectName(), limiter.subject(), subject)
+                                            .thenReturn(routeWait))
+                    : Mono.just(subjectWait));
+        }
+        if (wait == RateLimitStore.ALLOWED) {
+            return chain.filter(exchange);
+        }
+        return wait.flatMap(delay -> {
+            if (delay.isZero()) {
+                return chain.filter(exchange);
+            }
+            limiter.rejected().increment();
+            return tooManyRequests(exchange, delay);
+        });
+    }
+
+    private String subject(ServerWebExchange exchange) {
+        Claims claims = exchange.getAttribute(JwtClaimsResolver.CLAIMS_ATTRIBUTE);
+        if (claims != null && claims.getSubject() != null) {
+            return claims.getSubject();
+        }
+        return ClientAddress.of(exchange.getRequest(), properties.isTrustForwardedFor());
+    }
+
+    private RouteLimiter limiter(String routeId) {
+        RateLimitProperties.GatewayRoute limits = properties.getGateway().limitsFor(routeId);
+        Counter rejected = Counter.builder("auth.rate-limit.rejected")
+                .tag("route", routeId)
+                .tag("key", "gateway")
+                .register(meterRegistry);
+        return new RouteLimiter("gateway." + routeId + ".route", limits.getRoute(),
+                "gateway." + routeId + ".subject", limits.getSubject(), rejected);
+    }
+
+    private Mono<Void> tooManyRequests(ServerWebExchange exchange, Duration retryAfter) {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().add(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        exchange.getResponse().getHeaders().add(HttpHeaders.CONTENT_TYPE, "text/plain");
+        var buf = exchange.getResponse().bufferFactory()
+                .wrap("Too many requests".getBytes(StandardCharsets.UTF_8));
+        return exchange.getResponse().writeWith(Mono.just(buf));
+    }
+
+    /**
+     * Limits of one route with their store names.
+     */
+    private record RouteLimiter(String routeName, RateLimitProperties.Limit route,
+                                String subjectName, RateLimitProperties.Limit subject, Counter rejected) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.code_room.auth_service.config.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RateLimitStore} keeping one {@link TokenBucketSketch} per limit in this instance.
+ *
+ * <p>An allowed request costs a hash, a few atomic reads and one CAS, and allocates nothing, so the
+ * check stays well under a microsecond. Limits are enforced per instance: with {@code n} gateway
+ * instances behind a load balancer a client gets up to {@code n} times the configured rate.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    private final Map<String, TokenBucketSketch> sketches = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Duration> tryAcquire(String name, RateLimitProperties.Limit limit, String key) {
+        long waitNanos = sketch(name, limit).tryAcquire(key);
+        return waitNanos == 0 ? ALLOWED : Mono.just(Duration.ofNanos(waitNanos));
+    }
+
+    @Override
+    public Mono<Void> release(String name, RateLimitProperties.Limit limit, String key) {
+        sketch(name, limit).release(key);
+        return Mono.empty();
+    }
+
+    private TokenBucketSketch sketch(String name, RateLimitProperties.Limit limit) {
+        TokenBucketSketch sketch = sketches.get(name);
+        if (sketch == null) {
+            sketch = sketches.computeIfAbsent(name, n -> new TokenBucketSketch(limit.getCapacity(),
+                    limit.getPeriod(), properties.getDepth(), properties.getWidth()));
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,109 @@
+package com.code_room.auth_service.config.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rate limits of the authentication endpoints and the gateway routes, bound from {@code auth.rate-limit}.
+ *
+ * <p>Each route under {@code routes} may limit requests per client address, per account email, or
+ * both, e.g. {@code routes.login.account.capacity=5} with {@code routes.login.account.period=1m}.
+ * Gateway routes are configured by route id under {@code gateway.routes}.
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Rows of each sketch; more rows make collisions between rare keys less likely.
+     */
+    private int depth = 4;
+
+    /**
+     * Cells per row of each sketch; memory is {@code depth * width * 8} bytes per limit.
+     */
+    private int width = 16384;
+
+    /**
+     * Attribute requests to the first {@code X-Forwarded-For} address; only enable behind a trusted proxy.
+     */
+    private boolean trustForwardedFor = false;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    private Gateway gateway = new Gateway();
+
+    /**
+     * Limits of one route; a missing limit is not enforced.
+     */
+    @Data
+    public static class Route {
+
+        private Limit client;
+
+        private Limit account;
+    }
+
+    /**
+     * Admission control of the proxied routes.
+     */
+    @Data
+    public static class Gateway {
+
+        private boolean enabled = true;
+
+        /**
+         * Limits of routes without an entry under {@code routes}.
+         */
+        private GatewayRoute defaults = new GatewayRoute();
+
+        /**
+         * Limits by gateway route id.
+         */
+        private Map<String, GatewayRoute> routes = new LinkedHashMap<>();
+
+        /**
+         * Returns the limits that apply to a gateway route.
+         *
+         * @param routeId the route id
+         * @return the route limits, or the defaults
+         */
+        public GatewayRoute limitsFor(String routeId) {
+            return routes.getOrDefault(routeId, defaults);
+        }
+    }
+
+    /**
+     * Limits of one gateway route; a missing limit is not enforced.
+     */
+    @Data
+    public static class GatewayRoute {
+
+        /**
+         * Limit shared by every request to the route.
+         */
+        private Limit route;
+
+        /**
+         * Limit per authenticated subject, or per client address for anonymous requests.
+         */
+        private Limit subject;
+    }
+
+    /**
+     * A token bucket of {@code capacity} requests refilled over {@code period}.
+     */
+    @Data
+    public static class Limit {
+
+        private int capacity;
+
+        private Duration period;
+    }
+}
@@ -0,0 +1,40 @@
+package com.code_room.auth_service.config.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Backend holding the token buckets of the gateway rate limits.
+ *
+ * <p>{@link InMemoryRateLimitStore} keeps them per instance. A shared backend, e.g. GCRA in Redis,
+ * can implement this interface to enforce limits across instances without changing the callers,
+ * which is why the result is asynchronous.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Result of an allowed request; implementations may return this instance to avoid allocating.
+     */
+    Mono<Duration> ALLOWED = Mono.just(Duration.ZERO);
+
+    /**
+     * Takes one token from the bucket of a key under a named limit.
+     *
+     * @param name  the limit name, unique per limit definition
+     * @param limit the capacity and refill period of the limit
+     * @param key   the subject, client or route the request is attributed to
+     * @return {@link Duration#ZERO} if the request is allowed, otherwise how long until a token is available
+     */
+    Mono<Duration> tryAcquire(String name, RateLimitProperties.Limit limit, String key);
+
+    /**
+     * Gives back a token taken by an allowed {@link #tryAcquire}, for a request a later limit rejected.
+     *
+     * @param name  the limit name the token was taken under
+     * @param limit the capacity and refill period of the limit
+     * @param key   the subject, client or route the token was taken for
+     * @return completes once the token is back in the bucket
+     */
+    Mono<Void> release(String name, RateLimitProperties.Limit limit, String key);
+}
@@ -0,0 +1,163 @@
+package com.code_room.auth_service.config.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token buckets for an unbounded set of keys, held in a fixed-size count-min sketch.
+ *
+ * <p>Each bucket is stored in GCRA form: a single "theoretical arrival time" that moves forward by
+ * {@code period / capacity} per accepted request; a request is accepted while that time is less than
+ * one {@code period} ahead of now. This is exactly a token bucket of {@code capacity} tokens refilled
+ * over {@code period}, but fits one {@code long} updated with a CAS, so no lock is ever taken.
+ *
+ * <p>A key maps to one cell in each of {@code depth} rows of {@code width} cells. Keys sharing a cell
+ * only ever make each other look busier, so the key's bucket is read as the least busy of its cells
+ * and written back with a conservative update that raises only the cells behind it. A frequent key
+ * is therefore limited accurately, while the long tail of rare keys shares memory without being
+ * limited for its neighbours' traffic unless all of its cells collide with busy keys. Memory stays at
+ * {@code depth * width} longs however many clients and accounts are seen.
+ */
+public final class TokenBucketSketch {
+
+    private final int depth;
+    private final int widthMask;
+    private final AtomicLongArray cells;
+    private final long intervalNanos;
+    private final long periodNanos;
+
+    /**
+     * Reference point of the stored times, so an empty cell reads as a full bucket.
+     */
+    private final long originNanos = System.nanoTime();
+
+    /**
+     * @param capacity the number of requests allowed in a burst
+     * @param period   the time to refill an empty bucket
+     * @param depth    the number of rows, i.e. independent hashes per key
+     * @param width    the number of cells per row, rounded up to a power of two
+     */
+    public TokenBucketSketch(int capacity, Duration period, int depth, int width) {
+        if (capacity < 1 || period.isZero() || period.isNegative() || depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive capacity, period, depth and width");
+        }
+        int roundedWidth = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.widthMask = roundedWidth - 1;
+        this.cells = new AtomicLongArray(depth * roundedWidth);
+        this.periodNanos = period.toNanos();
+        this.intervalNanos = Math.max(1, periodNanos / capacity);
+    }
+
+    /**
+     * Takes one token from the bucket of a key.
+     *
+     * @param key the client or account the request is attributed to
+     * @return {@code 0} if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    /**
+     * Takes one token from the bucket of a key as of the given time.
+     *
+     * @param key      the client or account the request is attributed to
+     * @param nanoTime the current {@link System#nanoTime()}
+     * @return {@code 0} if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(String key, long nanoTime) {
+        long now = nanoTime - originNanos;
+        long hash = hash(key);
+        while (true) {
+            int least = index(hash, 0);
+            long arrival = cells.get(least);
+            for (int row = 1; row < depth; row++) {
+                int i = index(hash, row);
+                long cell = cells.get(i);
+                if (cell < arrival) {
+                    least = i;
+                    arrival = cell;
+                }
+            }
+
+            long next = Math.max(arrival, now) + intervalNanos;
+            if (next - now > periodNanos) {
+                return next - now - periodNanos;
+            }
+            // The other cells are raised first, so a concurrent request for the key still finds this
+            // cell the least busy one and both serialize on its CAS.
+            raise(hash, least, next);
+            if (cells.compareAndSet(least, arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back the token most recently taken from the bucket of a key, e.g. when a later limit
+     * rejected the request it was taken for.
+     *
+     * <p>Only the least busy cell, the one the bucket is read from, is lowered. Keys sharing that cell
+     * may see one more token than they have, which is the same slack a refill a moment early would give.
+     *
+     * @param key the client or account the token was taken for
+     */
+    public void release(String key) {
+        release(key, System.nanoTime());
+    }
+
+    void release(String key, long nanoTime) {
+        long now = nanoTime - originNanos;
+        long hash = hash(key);
+        while (true) {
+            int least = index(hash, 0);
+            long arrival = cells.get(least);
+            for (int row = 1; row < depth; row++) {
+                int i = index(hash, row);
+                long cell = cells.get(i);
+                if (cell < arrival) {
+                    least = i;
+                    arrival = cell;
+                }
+            }
+            if (arrival <= now || cells.compareAndSet(least, arrival, Math.max(now, arrival - intervalNanos))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Raises the cells of a key other than {@code except} to at least {@code next}, the conservative
+     * update of a count-min sketch.
+     */
+    private void raise(long hash, int except, long next) {
+        for (int row = 0; row < depth; row++) {
+            int i = index(hash, row);
+            long current = cells.get(i);
+            while (i != except && current < next && !cells.compareAndSet(i, current, next)) {
+                current = cells.get(i);
+            }
+        }
+    }
+
+    /**
+     * Cell of a key in a row; row {@code i} uses {@code h1 + i * h2}, as in Kirsch-Mitzenmacher double hashing.
+     */
+    private int index(long hash, int row) {
+        return row * (widthMask + 1) + (int) (((hash >>> 32) + row * (hash | 1)) & widthMask);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units of the key, finished with the SplitMix64 mixer.
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,13 @@
+package com.code_room.auth_service.domain.Exception;
+
+/**
+ * Thrown when a downstream service is temporarily refusing calls, either because it is failing
+ * or because the capacity reserved for it is exhausted. Callers should answer with 503 and let
+ * the client retry later instead of waiting on the dependency.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
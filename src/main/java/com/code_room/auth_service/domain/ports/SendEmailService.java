@@ -1,7 +1,11 @@
 package com.code_room.auth_service.domain.ports;
 
+import java.util.Locale;
+
 public interface SendEmailService {
-    void sendRegistrationSuccessEmail(String to, String name, String verificationCode);
+    void sendRegistrationSuccessEmail(String to, String name, String verificationCode, Locale locale);
+
+    void sendAlreadyVerifiedEmail(String to, String name, Locale locale);
 
-    void sendAlreadyVerifiedEmail(String to, String name);
+    boolean isOutboxFull();
 }
@@ -2,15 +2,16 @@ package com.code_room.auth_service.domain.ports;
 
 import com.code_room.auth_service.infrastructure.controller.dto.LoginDto;
 import com.code_room.auth_service.infrastructure.restclient.dto.UserDto;
+import reactor.core.publisher.Mono;
 
-import java.io.IOException;
+import java.util.Locale;
 
 public interface UserService {
-    UserDto findByEmail(String email) throws IOException;
+    Mono<UserDto> findByEmail(String email);
 
-    UserDto checkPassword(LoginDto login) throws IOException;
+    Mono<UserDto> checkPassword(LoginDto login);
 
-    void registerUser(UserDto userDto, String password) throws IOException;
+    Mono<Void> registerUser(UserDto userDto, String password, Locale locale);
 
-    void verifyUser(String code) throws IOException;
+    Mono<Void> verifyUser(String code);
 }
@@ -1,25 +1,43 @@
 package com.code_room.auth_service.domain.usecases;
 
 import com.code_room.auth_service.domain.ports.SendEmailService;
-import jakarta.mail.internet.MimeMessage;
+import com.code_room.auth_service.infrastructure.mail.EmailOutbox;
+import com.code_room.auth_service.infrastructure.mail.EmailTemplate;
+import com.code_room.auth_service.infrastructure.mail.EmailTemplates;
+import com.code_room.auth_service.infrastructure.mail.OutboundEmail;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Service implementation responsible for sending email notifications related to user authentication.
  * Implements the {@link SendEmailService} interface.
+ *
+ * <p>Bodies are rendered from the precompiled {@link EmailTemplates} and handed to the
+ * {@link EmailOutbox}, which delivers them in the background, so callers never wait on SMTP.
+ * The time a caller does spend, rendering and queueing, is recorded as {@code auth.mail.send}
+ * tagged with the template.
  */
 @Service
 public class SendEmailServiceImpl implements SendEmailService {
 
     /**
-     * JavaMailSender used to create and send MIME emails.
+     * Outbox that delivers the emails asynchronously.
      */
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutbox emailOutbox;
+
+    /**
+     * Precompiled email templates.
+     */
+    @Autowired
+    private EmailTemplates emailTemplates;
 
     /**
      * Email address used as the sender, configured via application properties.
@@ -27,122 +45,69 @@ public class SendEmailServiceImpl implements SendEmailService {
     @Value("${spring.mail.username}")
     private String from;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer registrationSuccess;
+    private Timer alreadyVerified;
+
+    @PostConstruct
+    void init() {
+        registrationSuccess = sendTimer("registration-success");
+        alreadyVerified = sendTimer("already-verified");
+    }
+
     /**
-     * Sends a registration success email containing a verification code to the specified recipient.
+     * Queues a registration success email containing a verification code to the specified recipient.
      *
      * @param to               the recipient's email address
      * @param name             the recipient's name for personalization in the email
      * @param verificationCode the verification code required to complete registration
-     * @throws RuntimeException if an error occurs while sending the email
+     * @param locale           the recipient's locale, or {@code null} for the default one
      */
     @Override
-    public void sendRegistrationSuccessEmail(String to, String name, String verificationCode) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setTo(to);
-            helper.setSubject("🎉 ¡Bienvenido a Code Room!");
-            helper.setFrom(from);
-
-            String htmlBody = generateRegistrationSuccessBody(name, verificationCode);
-            helper.setText(htmlBody, true);
-
-            mailSender.send(message);
-
-            System.out.println("Registration email sent to " + to);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Error sending registration email", e);
-        }
+    public void sendRegistrationSuccessEmail(String to, String name, String verificationCode, Locale locale) {
+        registrationSuccess.record(() -> {
+            EmailTemplate template = emailTemplates.get("registration-success", locale);
+            byte[] htmlBody = template.render(Map.of("name", nullToEmpty(name), "code", nullToEmpty(verificationCode)));
+            // the account already exists, so a full outbox delays the code rather than losing it
+            emailOutbox.enqueueOrDefer(OutboundEmail.of(from, to, template.getSubject(), htmlBody));
+        });
     }
 
     /**
-     * Sends an email notifying the recipient that their account has already been verified.
+     * Queues an email notifying the recipient that their account has already been verified.
      *
-     * @param to   the recipient's email address
-     * @param name the recipient's name for personalization in the email
-     * @throws RuntimeException if an error occurs while sending the email
+     * @param to     the recipient's email address
+     * @param name   the recipient's name for personalization in the email
+     * @param locale the recipient's locale, or {@code null} for the default one
+     * @throws java.util.concurrent.RejectedExecutionException if the outbox is full
      */
     @Override
-    public void sendAlreadyVerifiedEmail(String to, String name) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setTo(to);
-            helper.setSubject("✅ Your account is already verified – Code Room");
-            helper.setFrom(from);
-
-            String htmlBody = generateAlreadyVerifiedBody(name);
-            helper.setText(htmlBody, true);
-
-            mailSender.send(message);
-
-            System.out.println("Already verified email sent to " + to);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Error sending already verified email", e);
-        }
+    public void sendAlreadyVerifiedEmail(String to, String name, Locale locale) {
+        alreadyVerified.record(() -> {
+            EmailTemplate template = emailTemplates.get("already-verified", locale);
+            byte[] htmlBody = template.render(Map.of("name", nullToEmpty(name)));
+            emailOutbox.enqueue(OutboundEmail.of(from, to, template.getSubject(), htmlBody));
+        });
     }
 
     /**
-     * Generates the HTML content for the registration success email.
-     *
-     * @param name the recipient's name to personalize the email
-     * @param code the verification code to be included in the email
-     * @return a String containing the full HTML email body
+     * @return whether the outbox cannot take another email right now
      */
-    private String generateRegistrationSuccessBody(String name, String code) {
-        return "<!DOCTYPE html>" +
-                "<html><head><style>" +
-                "body { font-family: Arial, sans-serif; margin: 20px; color: #333; }" +
-                ".container { background-color: #eef4ff; padding: 30px; border-radius: 10px; border: 1px solid #ccc; }" +
-                "h2 { color: #1f3b75; }" +
-                "p { font-size: 16px; line-height: 1.6; }" +
-                ".code-box { margin-top: 20px; padding: 15px; background: #dceeff; border-radius: 8px; font-size: 20px; font-weight: bold; text-align: center; color: #0a3d62; }" +
-                ".btn { display:inline-block; margin-top:25px; padding:12px 20px; background:#1f3b75; color:#fff; text-decoration:none; border-radius:6px; font-weight:600; }" +
-                ".footer { margin-top: 30px; font-size: 12px; color: #888; }" +
-                "</style></head><body>" +
-                "<div class='container'>" +
-                "<h2>¡Hola, " + name + "! 👋</h2>" +
-                "<p>¡Bienvenido a <strong>Code Room</strong>! 💻 Estamos muy emocionados de tenerte como parte de nuestra comunidad de desarrolladores. 🤍</p>" +
-                "<p>Tu cuenta ha sido registrada correctamente. Para completar tu registro, por favor usa el siguiente código de verificación</p>" +
-                "<div class='code-box'>" + code + "</div>" +
-                "<p>En el siguiente link</p> " +
-                "<a href='https://victorious-water-0ec758310.2.azurestaticapps.net/verificacion' class='btn'>https://victorious-water-0ec758310.2.azurestaticapps.net/verificacion</a>" +
-                "<p style='margin-top:25px;'>Si no fuiste tú quien realizó esta solicitud, puedes ignorar este mensaje.</p>" +
-                "<p>¡Gracias por formar parte de <strong>Code Room</strong>! 🚀</p>" +
-                "<p><strong>– El equipo de Code Room 🧠</strong></p>" +
-                "<div class='footer'>Este es un mensaje automático. Por favor, no respondas a este correo.</div>" +
-                "</div></body></html>";
+    @Override
+    public boolean isOutboxFull() {
+        return emailOutbox.isFull();
     }
 
-    /**
-     * Generates the HTML content for the email informing the user their account is already verified.
-     *
-     * @param name the recipient's name to personalize the email
-     * @return a String containing the full HTML email body
-     */
-    private String generateAlreadyVerifiedBody(String name) {
-        return "<!DOCTYPE html>" +
-                "<html><head><style>" +
-                "body { font-family: Arial, sans-serif; margin: 20px; color: #333; }" +
-                ".container { background-color: #eafaf1; padding: 30px; border-radius: 10px; border: 1px solid #ccc; }" +
-                "h2 { color: #1a7f5f; }" +
-                "p { font-size: 16px; line-height: 1.6; }" +
-                ".footer { margin-top: 30px; font-size: 12px; color: #888; }" +
-                "</style></head><body>" +
-                "<div class='container'>" +
-                "<h2>Hola, " + name + " 👋</h2>" +
-                "<p>Hemos detectado que tu cuenta ya fue verificada anteriormente. ✅</p>" +
-                "<p>Ya puedes iniciar sesión y disfrutar de todas las funcionalidades de <strong>Code Room</strong>. 💻🚀</p>" +
-                "<p>Si no fuiste tú quien solicitó esto, por favor contáctanos inmediatamente.</p>" +
-                "<p><strong>– El equipo de Code Room 🧠</strong></p>" +
-                "<div class='footer'>Este es un mensaje automático. Por favor, no respondas a este correo.</div>" +
-                "</div></body></html>";
+    private Timer sendTimer(String template) {
+        return Timer.builder("auth.mail.send")
+                .description("Time to render an email and queue it for delivery")
+                .tag("template", template)
+                .register(meterRegistry);
     }
 
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
 }
@@ -0,0 +1,99 @@
+package com.code_room.auth_service.domain.usecases;
+
+import com.code_room.auth_service.infrastructure.restclient.dto.UserDto;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Bounded, read-through cache of user profiles keyed by normalized email.
+ *
+ * <p>Concurrent misses for the same email share one pending lookup, so a burst of requests for a
+ * user costs a single call to the User service. Entries expire {@code auth.user-cache.ttl} after
+ * being loaded; failed or empty lookups are not cached. Hits, misses and evictions are published as
+ * {@code cache.*} metrics tagged {@code cache=auth.users}. Cached {@link UserDto}s are shared
+ * between requests and must be treated as read-only.
+ */
+@Component
+public class UserProfileCache {
+
+    private static final String CACHE_NAME = "auth.users";
+
+    @Value("${auth.user-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${auth.user-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${auth.user-cache.ttl:30s}")
+    private Duration ttl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Underlying cache, {@code null} while the cache is disabled.
+     */
+    private AsyncCache<String, UserDto> cache;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached profile for an email, loading it on a miss.
+     *
+     * @param email  the email to look up
+     * @param loader the remote lookup, called with {@code email} on a miss
+     * @return a Mono emitting the user profile, or empty if the loader found none
+     */
+    public Mono<UserDto> get(String email, Function<String, Mono<UserDto>> loader) {
+        if (cache == null) {
+            return loader.apply(email);
+        }
+        return Mono.fromFuture(() -> cache.get(normalize(email), (key, executor) -> loader.apply(email).toFuture()), true);
+    }
+
+    /**
+     * Drops the cached profile of an email.
+     *
+     * @param email the email whose profile changed
+     */
+    public void invalidate(String email) {
+        if (cache != null && email != null) {
+            cache.synchronous().invalidate(normalize(email));
+        }
+    }
+
+    /**
+     * Drops every cached profile.
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -7,16 +7,20 @@ import com.code_room.auth_service.infrastructure.restclient.UserApiService;
 import com.code_room.auth_service.infrastructure.restclient.dto.UserDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import retrofit2.Response;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
-import java.io.IOException;
-import java.util.Map;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Implementation of the {@link UserService} interface.
  * Handles user-related operations such as finding users by email,
  * verifying passwords, registering users, and verifying user accounts.
+ *
+ * <p>All calls to the external User API are non-blocking, and registration emails are
+ * only queued for background delivery. Lookups by email are served from {@link UserProfileCache},
+ * which registration and verification invalidate.
  */
 @Service
 public class UserServiceImpl implements UserService {
@@ -34,68 +38,62 @@ public class UserServiceImpl implements UserService {
     private SendEmailService sendEmailService;
 
     /**
-     * Finds a user by their email address by calling an external User API.
+     * Read-through cache of the profiles returned by {@link #findByEmail(String)}.
+     */
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    /**
+     * Finds a user by their email address, calling the external User API on a cache miss.
      *
      * @param email the email address to search for
-     * @return a {@link UserDto} representing the found user
-     * @throws IOException          if there is a communication error with the API
-     * @throws RuntimeException     if the API response is unsuccessful or the response body is null
+     * @return a Mono emitting the {@link UserDto} representing the found user
+     *         or failing with a {@link RuntimeException} if the API response is unsuccessful or empty
      */
     @Override
-    public UserDto findByEmail(String email) throws IOException {
-        Response<UserDto> response = userApiService.findByEmail(email)
-                .execute();
-
-        if(response.isSuccessful() || response.body() == null){
-            String errorMsg = response.errorBody() != null ? response.errorBody().string() : "Empty error body";
-            new RuntimeException("Error calling esternal api " + errorMsg);
-        }
-        return response.body();
+    public Mono<UserDto> findByEmail(String email) {
+        return userProfileCache.get(email, key -> callExternalApi(userApiService.findByEmail(key)));
     }
 
     /**
      * Checks the user's password by sending login credentials to the external API.
      *
      * @param loginDto the login data transfer object containing email and password
-     * @return a {@link UserDto} if credentials are valid
-     * @throws IOException          if there is a communication error with the API
-     * @throws RuntimeException     if the API response is unsuccessful or the response body is null
+     * @return a Mono emitting the {@link UserDto} if credentials are valid
+     *         or failing with a {@link RuntimeException} if the API response is unsuccessful or empty
      */
     @Override
-    public UserDto checkPassword(LoginDto loginDto) throws IOException {
-        Response<UserDto> response = userApiService.checkUser(loginDto).execute();
-
-        if (!response.isSuccessful() || response.body() == null) {
-            String errorMsg = response.errorBody() != null ? response.errorBody().string() : "Empty error body";
-            throw new RuntimeException("Error calling external API: " + errorMsg);
-        }
-
-        return response.body();
+    public Mono<UserDto> checkPassword(LoginDto loginDto) {
+        return callExternalApi(userApiService.checkUser(loginDto));
     }
 
     /**
      * Registers a new user by sending user data and password to the external API,
      * then sends a registration success email with a verification code.
      *
+     * <p>A full outbox is checked before the user is created, while the client can still safely retry.
+     * Once the account exists, the email is always accepted and delayed if the outbox filled up since.
+     *
      * @param userDto  the user data transfer object containing user information
      * @param password the password for the new user
-     * @throws IOException          if there is a communication error with the API
-     * @throws RuntimeException     if the API response is unsuccessful or the response body is null
+     * @param locale   the user's locale for the registration email, or {@code null} for the default one
+     * @return a Mono completing once the user is created and the email queued
+     *         or failing with a {@link RuntimeException} if the API response is unsuccessful or empty,
+     *         or with a {@link RejectedExecutionException}, before creating the user, if the email outbox is full
      */
     @Override
-    public void registerUser(UserDto userDto, String password) throws IOException {
-
-        Response<Map<String, String>> response = userApiService.createUser(userDto,password)
-                .execute();
-
-        if(!response.isSuccessful() || response.body() == null){
-            String errorMsg = response.errorBody() != null ? response.errorBody().string() : "Empty error body";
-            throw new RuntimeException("Error calling external API: " + errorMsg);
+    public Mono<Void> registerUser(UserDto userDto, String password, Locale locale) {
+        if (sendEmailService.isOutboxFull()) {
+            return Mono.error(new RejectedExecutionException("Email outbox is full"));
         }
-
-        String code = response.body().get("verification code");
-
-        sendEmailService.sendRegistrationSuccessEmail(userDto.getEmail(), userDto.getName(), code);
+        return callExternalApi(userApiService.createUser(userDto, password))
+                .doOnNext(body -> userProfileCache.invalidate(userDto.getEmail()))
+                .flatMap(body -> {
+                    String code = body.get("verification code");
+                    return Mono.fromRunnable(() ->
+                            sendEmailService.sendRegistrationSuccessEmail(userDto.getEmail(), userDto.getName(), code, locale));
+                })
+                .then();
     }
 
     /**
@@ -109,19 +107,33 @@ public class UserServiceImpl implements UserService {
 
     /**
      * Verifies a user account by sending a verification code to the external API.
+     * The code does not identify the account, so every cached profile is dropped on success.
      *
      * @param code the verification code to validate the user account
-     * @throws IOException          if there is a communication error with the API
-     * @throws RuntimeException     if the API response is unsuccessful or the response body is null
+     * @return a Mono completing once the account is verified
+     *         or failing with a {@link RuntimeException} if the API response is unsuccessful or empty
      */
     @Override
-    public void verifyUser(String code) throws IOException {
-        Response<Map<String,String>> response = userApiService.verifyUser(code)
-                .execute();
+    public Mono<Void> verifyUser(String code) {
+        return callExternalApi(userApiService.verifyUser(code))
+                .doOnNext(body -> userProfileCache.invalidateAll())
+                .then();
+    }
 
-        if(!response.isSuccessful() || response.body() == null){
-            String errorMsg = response.errorBody() != null ? response.errorBody().string() : "Empty error body";
-            throw new RuntimeException("Error calling external API: " + errorMsg);
-        }
+    /**
+     * Maps unsuccessful or empty responses of the external API to a {@link RuntimeException}
+     * carrying the error body, as callers expect.
+     *
+     * @param response the pending API response
+     * @param <T>      the response body type
+     * @return a Mono emitting the response body
+     */
+    private static <T> Mono<T> callExternalApi(Mono<T> response) {
+        return response
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    String errorMsg = !e.getResponseBodyAsString().isEmpty() ? e.getResponseBodyAsString() : "Empty error body";
+                    return new RuntimeException("Error calling external API: " + errorMsg, e);
+                })
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Error calling external API: Empty error body")));
     }
 }
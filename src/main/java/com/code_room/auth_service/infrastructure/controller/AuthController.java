@@ -1,52 +1,80 @@
 package com.code_room.auth_service.infrastructure.controller;
 
 import com.code_room.auth_service.domain.Exception.LoginException;
+import com.code_room.auth_service.domain.Exception.ServiceUnavailableException;
+import com.code_room.auth_service.config.jwt.JwtClaimsResolver;
 import com.code_room.auth_service.config.jwt.JwtService;
+import com.code_room.auth_service.config.ratelimit.AuthRateLimiter;
 import com.code_room.auth_service.domain.ports.UserService;
 import com.code_room.auth_service.infrastructure.controller.dto.LoginDto;
 import com.code_room.auth_service.infrastructure.controller.dto.RefreshTokenRequest;
 import com.code_room.auth_service.infrastructure.restclient.dto.UserDto;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST controller that manages authentication-related endpoints.
  *
  * <p>Supports user login, registration, account verification, and JWT token refresh.
+ * Every endpoint is non-blocking; blocking work is delegated to bounded background
+ * workers. Saturated workers and an unavailable User service are reported as 503.
+ * Login and registration attempts over the limits of {@link AuthRateLimiter} are rejected
+ * with 429 before they reach the User service.
  */
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
+    private static final String LOGIN_ROUTE = "login";
+    private static final String REGISTER_ROUTE = "register";
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private JwtClaimsResolver claimsResolver;
+
+    @Autowired
+    private AuthRateLimiter rateLimiter;
+
     /**
      * Authenticates a user by validating their credentials.
      *
      * @param loginDto the login data transfer object containing email and password
-     * @return a ResponseEntity containing JWT tokens on success or an error message on failure
+     * @param exchange the current exchange, whose client address is rate limited
+     * @return a Mono emitting a ResponseEntity containing JWT tokens on success or an error message on failure
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginDto loginDto) {
-        try {
-            UserDto user = userService.checkPassword(loginDto);
-            return ResponseEntity.ok(jwtService.buildResponseLogin(user));
-
-        } catch (LoginException e) {
-            Map<String, String> error = Map.of("message", e.getMessage(), "code", "405");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        } catch (Exception e) {
-            Map<String, String> error = Map.of("message", e.getMessage(), "code", "403");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    public Mono<ResponseEntity<?>> login(@RequestBody LoginDto loginDto, ServerWebExchange exchange) {
+        Duration retryAfter = rateLimiter.check(LOGIN_ROUTE, exchange.getRequest(), loginDto.getEmail());
+        if (retryAfter != null) {
+            return tooManyRequests(retryAfter);
         }
+        return userService.checkPassword(loginDto)
+                .<ResponseEntity<?>>map(user -> ResponseEntity.ok(jwtService.buildResponseLogin(user)))
+                .onErrorResume(LoginException.class, e -> {
+                    Map<String, String> error = Map.of("message", e.getMessage(), "code", "405");
+                    return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error));
+                })
+                .onErrorResume(ServiceUnavailableException.class, AuthController::serviceUnavailable)
+                .onErrorResume(e -> {
+                    Map<String, String> error = Map.of("message", e.getMessage(), "code", "403");
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error));
+                });
     }
 
     /**
@@ -54,58 +82,121 @@ public class AuthController {
      *
      * @param dto the user data transfer object containing user details
      * @param password the password for the new user
-     * @return a ResponseEntity with a success message or error details
+     * @param exchange the current exchange, whose Accept-Language selects the email language
+     * @return a Mono emitting a ResponseEntity with a success message or error details
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody UserDto dto, @RequestParam String password) {
-        try {
-            userService.registerUser(dto, password);
-            Map<String, String> success = Map.of(
-                    "message", "User registered successfully"
-            );
-            return ResponseEntity.ok(success);
-
-        } catch (Exception e) {
-            Map<String, String> error = Map.of(
-                    "message", e.getMessage()
-            );
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    public Mono<ResponseEntity<?>> register(@RequestBody UserDto dto, @RequestParam String password,
+                                            ServerWebExchange exchange) {
+        Duration retryAfter = rateLimiter.check(REGISTER_ROUTE, exchange.getRequest(), dto.getEmail());
+        if (retryAfter != null) {
+            return tooManyRequests(retryAfter);
         }
+        return userService.registerUser(dto, password, exchange.getLocaleContext().getLocale())
+                .then(Mono.<ResponseEntity<?>>fromSupplier(() -> {
+                    Map<String, String> success = Map.of(
+                            "message", "User registered successfully"
+                    );
+                    return ResponseEntity.ok(success);
+                }))
+                .onErrorResume(RejectedExecutionException.class, e -> {
+                    Map<String, String> error = Map.of(
+                            "message", "Registration is temporarily unavailable, please try again later"
+                    );
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error));
+                })
+                .onErrorResume(ServiceUnavailableException.class, AuthController::serviceUnavailable)
+                .onErrorResume(e -> {
+                    Map<String, String> error = Map.of(
+                            "message", e.getMessage()
+                    );
+                    return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error));
+                });
     }
 
     /**
      * Verifies a user's account using the provided verification code.
      *
      * @param code the verification code sent to the user
-     * @return a ResponseEntity with a success message or error message if verification fails
+     * @return a Mono emitting a ResponseEntity with a success message or error message if verification fails
      */
     @GetMapping("/verify")
-    public ResponseEntity<String> verifyUser(@RequestParam("code") String code) {
-        try {
-            userService.verifyUser(code);
-            return ResponseEntity.ok("Your account has been successfully verified. You can now log in.");
-        } catch (Exception e) {
-            return ResponseEntity
-                    .badRequest()
-                    .body("Verification failed: " + e.getMessage());
-        }
+    public Mono<ResponseEntity<String>> verifyUser(@RequestParam("code") String code) {
+        return userService.verifyUser(code)
+                .then(Mono.fromSupplier(() ->
+                        ResponseEntity.ok("Your account has been successfully verified. You can now log in.")))
+                .onErrorResume(ServiceUnavailableException.class, e -> Mono.just(ResponseEntity
+                        .status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(e.getMessage())))
+                .onErrorResume(e -> Mono.just(ResponseEntity
+                        .badRequest()
+                        .body("Verification failed: " + e.getMessage())));
     }
 
     /**
      * Refreshes the JWT access and refresh tokens using a valid refresh token.
      *
      * @param request the refresh token request containing the refresh token
-     * @return a ResponseEntity with new JWT tokens or an error message if unauthorized
+     * @return a Mono emitting a ResponseEntity with new JWT tokens or an error message if unauthorized
      */
     @PostMapping("/refresh")
-    public ResponseEntity<?> refreshToken(@RequestBody RefreshTokenRequest request) {
+    public Mono<ResponseEntity<?>> refreshToken(@RequestBody RefreshTokenRequest request) {
+        return jwtService.buildResponseRefreshToken(request)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(ServiceUnavailableException.class, AuthController::serviceUnavailable)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
+                        Map.of("message", e.getMessage(), "code", "401")
+                )));
+    }
+
+    /**
+     * Logs the caller out by revoking the bearer access token and, if provided, the refresh token
+     * together with every token rotated from it.
+     *
+     * @param exchange the current exchange, carrying the access token
+     * @param request  the refresh token to revoke, optional
+     * @return a Mono emitting a ResponseEntity with a success message or 401 if the access token is invalid
+     */
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<?>> logout(ServerWebExchange exchange,
+                                          @RequestBody(required = false) RefreshTokenRequest request) {
+        Claims claims;
         try {
-            Map<String, Object> response = jwtService.buildResponseRefreshToken(request);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
-                    Map.of("message", e.getMessage(), "code", "401")
-            );
+            claims = claimsResolver.resolve(exchange);
+            if (claims == null) {
+                return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
+                        Map.of("message", "Missing Authorization header", "code", "401")));
+            }
+            jwtService.revoke(claims, request != null ? request.getRefresToken() : null);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
+                    Map.of("message", e.getMessage(), "code", "401")));
         }
+        return Mono.just(ResponseEntity.ok(Map.of("message", "Logged out successfully")));
+    }
+
+    /**
+     * Builds the 503 response returned while the User service is refusing calls.
+     *
+     * @param e the exception raised by the guarded call
+     * @return a Mono emitting the error response
+     */
+    private static Mono<ResponseEntity<?>> serviceUnavailable(ServiceUnavailableException e) {
+        Map<String, String> error = Map.of("message", e.getMessage(), "code", "503");
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error));
+    }
+
+    /**
+     * Builds the 429 response returned while a client or account is over its rate limit.
+     *
+     * @param retryAfter how long until the next attempt is allowed
+     * @return a Mono emitting the error response with a {@code Retry-After} header in whole seconds
+     */
+    private static Mono<ResponseEntity<?>> tooManyRequests(Duration retryAfter) {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        Map<String, String> error = Map.of("message", "Too many attempts, please try again later", "code", "429");
+        return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(error));
     }
 }
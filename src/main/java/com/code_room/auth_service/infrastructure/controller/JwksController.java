@@ -0,0 +1,40 @@
+package com.code_room.auth_service.infrastructure.controller;
+
+import com.code_room.auth_service.config.jwt.JwtKeyProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * REST controller publishing the public signing keys as a JSON Web Key Set (RFC 7517).
+ *
+ * <p>Downstream services fetch the set once, cache it, and verify tokens locally by matching the
+ * {@code kid} token header against it, instead of calling back through the gateway. The set is empty
+ * while tokens are signed with the HMAC secret.
+ */
+@RestController
+public class JwksController {
+
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+    @Autowired
+    private JwtKeyProvider keyProvider;
+
+    /**
+     * Returns the current public signing keys.
+     *
+     * @return a Mono emitting a ResponseEntity with the {@code keys} array
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public Mono<ResponseEntity<Map<String, Object>>> jwks() {
+        return Mono.just(ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(MAX_AGE).cachePublic())
+                .body(Map.of("keys", keyProvider.getPublicJwks())));
+    }
+}
@@ -0,0 +1,381 @@
+package com.code_room.auth_service.infrastructure.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.activation.DataHandler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.ByteArrayDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process outbox that decouples sending emails from the requests that trigger them.
+ *
+ * <p>{@link #enqueue(OutboundEmail)} only adds the email to a bounded queue and returns. Up to
+ * {@code auth.mail.outbox.workers} drain tasks on the {@code blockingScheduler} take emails in batches
+ * of {@code auth.mail.outbox.batch-size} and send them over an SMTP {@link Transport}. Connections are
+ * kept open across batches and drain tasks, at most one per worker, and are reopened once a connection
+ * has been idle longer than {@code auth.mail.outbox.idle-timeout} or the server dropped it. Failed
+ * messages are retried with exponential backoff up to {@code auth.mail.outbox.max-attempts} times,
+ * and so are retries and {@link #enqueueOrDefer(OutboundEmail) deferred} emails that find the outbox full.
+ *
+ * <p>Queue depth, enqueue-to-delivery latency, SMTP batch time, opened connections and sent, retried,
+ * failed, rejected and deferred counts are published under the {@code auth.mail.outbox} metric prefix.
+ */
+@Component
+public class EmailOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutbox.class);
+
+    private static final String HTML_CONTENT_TYPE = "text/html; charset=UTF-8";
+
+    @Autowired
+    private JavaMailSenderImpl mailSender;
+
+    @Autowired
+    @Qualifier("blockingScheduler")
+    private Scheduler blockingScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.mail.outbox.capacity:10000}")
+    private int capacity;
+
+    @Value("${auth.mail.outbox.workers:2}")
+    private int workers;
+
+    @Value("${auth.mail.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${auth.mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${auth.mail.outbox.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${auth.mail.outbox.idle-timeout:30s}")
+    private Duration idleTimeout;
+
+    private BlockingQueue<OutboundEmail> queue;
+
+    /**
+     * Open connections not currently used by a drain task.
+     */
+    private final BlockingQueue<IdleTransport> idleTransports = new LinkedBlockingQueue<>();
+
+    /**
+     * Number of drain tasks currently scheduled or running.
+     */
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    private Timer latency;
+    private Timer smtpSuccess;
+    private Timer smtpFailure;
+    private Counter sent;
+    private Counter retried;
+    private Counter failed;
+    private Counter rejected;
+    private Counter deferred;
+    private Counter connections;
+
+    @PostConstruct
+    void init() {
+        queue = new LinkedBlockingQueue<>(capacity);
+        meterRegistry.gauge("auth.mail.outbox.depth", queue, BlockingQueue::size);
+        latency = Timer.builder("auth.mail.outbox.latency")
+                .description("Time from enqueueing an email to its delivery")
+                .register(meterRegistry);
+        smtpSuccess = smtpTimer("success");
+        smtpFailure = smtpTimer("failure");
+        sent = meterRegistry.counter("auth.mail.outbox.sent");
+        retried = meterRegistry.counter("auth.mail.outbox.retried");
+        failed = meterRegistry.counter("auth.mail.outbox.failed");
+        rejected = meterRegistry.counter("auth.mail.outbox.rejected");
+        deferred = meterRegistry.counter("auth.mail.outbox.deferred");
+        connections = meterRegistry.counter("auth.mail.outbox.connections");
+    }
+
+    /**
+     * Closes the connections kept open between batches.
+     */
+    @PreDestroy
+    void shutdown() {
+        IdleTransport idle;
+        while ((idle = idleTransports.poll()) != null) {
+            close(idle.transport());
+        }
+    }
+
+    /**
+     * Adds an email to the outbox without waiting for it to be sent.
+     *
+     * @param email the email to deliver
+     * @throws RejectedExecutionException if the outbox is full
+     */
+    public void enqueue(OutboundEmail email) {
+        if (!queue.offer(email)) {
+            rejected.increment();
+            throw new RejectedExecutionException("Email outbox is full");
+        }
+        signalWorkers();
+    }
+
+    /**
+     * Adds an email to the outbox, or if it is full, tries again after the retry backoff instead of
+     * failing. For emails whose cause has already happened, so the caller cannot back out any more.
+     *
+     * @param email the email to deliver
+     */
+    public void enqueueOrDefer(OutboundEmail email) {
+        if (!queue.offer(email)) {
+            rejected.increment();
+            deferred.increment();
+            retry(email, new RejectedExecutionException("Email outbox is full"));
+            return;
+        }
+        signalWorkers();
+    }
+
+    /**
+     * @return whether the outbox cannot take another email right now
+     */
+    public boolean isFull() {
+        return queue.remainingCapacity() == 0;
+    }
+
+    /**
+     * @return the number of emails waiting to be sent
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Starts a drain task if none is running, or another one while the backlog exceeds
+     * what the running tasks take in one batch, up to the configured number of workers.
+     */
+    private void signalWorkers() {
+        while (true) {
+            int active = activeWorkers.get();
+            if (active >= workers || queue.isEmpty() || (active > 0 && queue.size() <= active * batchSize)) {
+                return;
+            }
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                try {
+                    blockingScheduler.schedule(this::drain);
+                } catch (RejectedExecutionException e) {
+                    activeWorkers.decrementAndGet();
+                    log.warn("Blocking scheduler is saturated, {} emails stay queued", queue.size());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends batches until the queue is empty, reusing one connection for all of them.
+     */
+    private void drain() {
+        Transport transport = null;
+        try {
+            List<OutboundEmail> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                transport = send(batch, transport);
+                batch.clear();
+            }
+        } finally {
+            release(transport);
+            activeWorkers.decrementAndGet();
+            signalWorkers();
+        }
+    }
+
+    /**
+     * Delivers a batch over one SMTP connection and schedules retries for the messages that failed.
+     *
+     * @param batch     the emails to deliver
+     * @param transport the connection used for the previous batch, or {@code null}
+     * @return the connection to use for the next batch, or {@code null} if none could be opened
+     */
+    Transport send(List<OutboundEmail> batch, Transport transport) {
+        long start = System.nanoTime();
+        boolean allSent = true;
+        for (OutboundEmail email : batch) {
+            MimeMessage message;
+            try {
+                message = toMimeMessage(email);
+            } catch (MessagingException e) {
+                failed.increment();
+                log.error("Dropping malformed email to {}", email.to(), e);
+                continue;
+            }
+
+            MessagingException failure = null;
+            try {
+                if (transport == null) {
+                    transport = acquire();
+                }
+                deliver(transport, message);
+            } catch (MessagingException e) {
+                failure = e;
+            }
+            if (failure != null && transport != null && !transport.isConnected()) {
+                // the server dropped the connection; reopen it once for this message
+                close(transport);
+                transport = null;
+                try {
+                    transport = connect();
+                    deliver(transport, message);
+                    failure = null;
+                } catch (MessagingException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                allSent = false;
+                retry(email, failure);
+                continue;
+            }
+            sent.increment();
+            latency.record(System.nanoTime() - email.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+        (allSent ? smtpSuccess : smtpFailure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return transport;
+    }
+
+    private static void deliver(Transport transport, MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+        transport.sendMessage(message, message.getAllRecipients());
+    }
+
+    /**
+     * Takes an idle connection that is still fresh, closing the stale ones, or opens a new one.
+     */
+    private Transport acquire() throws MessagingException {
+        long now = System.nanoTime();
+        IdleTransport idle;
+        while ((idle = idleTransports.poll()) != null) {
+            if (now - idle.sinceNanos() < idleTimeout.toNanos() && idle.transport().isConnected()) {
+                return idle.transport();
+            }
+            close(idle.transport());
+        }
+        return connect();
+    }
+
+    private Transport connect() throws MessagingException {
+        String protocol = mailSender.getProtocol() != null
+                ? mailSender.getProtocol()
+                : mailSender.getSession().getProperty("mail.transport.protocol");
+        Transport transport = mailSender.getSession().getTransport(protocol != null ? protocol : "smtp");
+        transport.connect(mailSender.getHost(), mailSender.getPort(),
+                emptyToNull(mailSender.getUsername()), emptyToNull(mailSender.getPassword()));
+        connections.increment();
+        return transport;
+    }
+
+    /**
+     * Keeps a connection open for the next drain task.
+     */
+    private void release(Transport transport) {
+        if (transport == null) {
+            return;
+        }
+        if (!transport.isConnected() || idleTransports.size() >= workers) {
+            close(transport);
+            return;
+        }
+        idleTransports.offer(new IdleTransport(transport, System.nanoTime()));
+    }
+
+    private static void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Could not close SMTP connection cleanly", e);
+        }
+    }
+
+    /**
+     * Schedules another attempt for an email after an exponential backoff, or gives up on it.
+     */
+    private void retry(OutboundEmail email, Exception failure) {
+        OutboundEmail next = email.nextAttempt();
+        if (next.attempt() >= maxAttempts) {
+            failed.increment();
+            log.error("Giving up on email to {} after {} attempts", email.to(), next.attempt(), failure);
+            return;
+        }
+
+        retried.increment();
+        long backoffMillis = initialBackoff.toMillis() << Math.min(email.attempt(), 20);
+        log.warn("Email to {} failed, retrying in {} ms: {}", email.to(), backoffMillis, failure.getMessage());
+        try {
+            blockingScheduler.schedule(() -> requeue(next), backoffMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            requeue(next);
+        }
+    }
+
+    private void requeue(OutboundEmail email) {
+        if (!queue.offer(email)) {
+            retry(email, new RejectedExecutionException("Email outbox is full"));
+            return;
+        }
+        signalWorkers();
+    }
+
+    private MimeMessage toMimeMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+
+        helper.setTo(email.to());
+        helper.setSubject(email.subject());
+        helper.setFrom(email.from());
+        message.setDataHandler(new DataHandler(new ByteArrayDataSource(email.htmlBody(), HTML_CONTENT_TYPE)));
+        return message;
+    }
+
+    private Timer smtpTimer(String outcome) {
+        return Timer.builder("auth.mail.outbox.smtp")
+                .description("Time to deliver a batch of emails over a kept-open SMTP connection")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * An open connection and the time it was last returned to the pool.
+     */
+    private record IdleTransport(Transport transport, long sinceNanos) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.code_room.auth_service.infrastructure.mail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An email template compiled once into static UTF-8 segments and named placeholder slots.
+ *
+ * <p>The source starts with {@code Name: value} header lines (only {@code Subject} is used), followed by
+ * an empty line and the HTML body, in which {@code {{slot}}} marks a placeholder. Rendering copies the
+ * precomputed segments and writes the HTML-escaped slot values straight into a per-thread buffer,
+ * so a send allocates little more than the resulting byte array.
+ */
+public final class EmailTemplate {
+
+    private static final String SUBJECT_HEADER = "Subject:";
+    private static final String SLOT_START = "{{";
+    private static final String SLOT_END = "}}";
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private static final ThreadLocal<RenderBuffer> BUFFERS = ThreadLocal.withInitial(RenderBuffer::new);
+
+    private final String subject;
+
+    /**
+     * Static parts of the body; there is always one more segment than slots.
+     */
+    private final byte[][] segments;
+
+    private final String[] slots;
+
+    private EmailTemplate(String subject, byte[][] segments, String[] slots) {
+        this.subject = subject;
+        this.segments = segments;
+        this.slots = slots;
+    }
+
+    /**
+     * Parses a template source.
+     *
+     * @param source the template text: headers, an empty line and the HTML body
+     * @return the compiled template
+     * @throws IllegalArgumentException if a placeholder is not closed
+     */
+    public static EmailTemplate compile(String source) {
+        source = source.replace("\r\n", "\n");
+        String subject = "";
+        String body = source;
+        int headerEnd = source.indexOf("\n\n");
+        if (source.startsWith(SUBJECT_HEADER) && headerEnd >= 0) {
+            for (String header : source.substring(0, headerEnd).split("\n")) {
+                if (header.startsWith(SUBJECT_HEADER)) {
+                    subject = header.substring(SUBJECT_HEADER.length()).trim();
+                }
+            }
+            body = source.substring(headerEnd + 2);
+        }
+
+        List<byte[]> segments = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int position = 0;
+        int start;
+        while ((start = body.indexOf(SLOT_START, position)) >= 0) {
+            int end = body.indexOf(SLOT_END, start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + start);
+            }
+            segments.add(body.substring(position, start).getBytes(StandardCharsets.UTF_8));
+            slots.add(body.substring(start + SLOT_START.length(), end).trim());
+            position = end + SLOT_END.length();
+        }
+        segments.add(body.substring(position).getBytes(StandardCharsets.UTF_8));
+
+        return new EmailTemplate(subject, segments.toArray(byte[][]::new), slots.toArray(String[]::new));
+    }
+
+    /**
+     * @return the subject declared in the template headers
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Renders the body with the given slot values, HTML-escaping each of them.
+     *
+     * @param values values by slot name; missing slots render empty
+     * @return the UTF-8 encoded HTML body
+     */
+    public byte[] render(Map<String, String> values) {
+        RenderBuffer buffer = BUFFERS.get();
+        buffer.reset();
+        for (int i = 0; i < slots.length; i++) {
+            buffer.write(segments[i]);
+            buffer.writeEscaped(values.get(slots[i]));
+        }
+        buffer.write(segments[slots.length]);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Growable byte buffer reused by every render on the same thread.
+     */
+    private static final class RenderBuffer {
+
+        private byte[] bytes = new byte[INITIAL_BUFFER_SIZE];
+        private int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        void write(byte[] segment) {
+            ensureCapacity(segment.length);
+            System.arraycopy(segment, 0, bytes, size, segment.length);
+            size += segment.length;
+        }
+
+        /**
+         * Writes the UTF-8 encoding of the value with {@code & < > " '} replaced by entities.
+         */
+        void writeEscaped(String value) {
+            if (value == null) {
+                return;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&' -> writeAscii("&amp;");
+                    case '<' -> writeAscii("&lt;");
+                    case '>' -> writeAscii("&gt;");
+                    case '"' -> writeAscii("&quot;");
+                    case '\'' -> writeAscii("&#39;");
+                    default -> {
+                        if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                                && Character.isLowSurrogate(value.charAt(i + 1))) {
+                            writeCodePoint(Character.toCodePoint(c, value.charAt(++i)));
+                        } else {
+                            writeCodePoint(Character.isSurrogate(c) ? '?' : c);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void writeAscii(String entity) {
+            ensureCapacity(entity.length());
+            for (int i = 0; i < entity.length(); i++) {
+                bytes[size++] = (byte) entity.charAt(i);
+            }
+        }
+
+        private void writeCodePoint(int codePoint) {
+            ensureCapacity(4);
+            if (codePoint < 0x80) {
+                bytes[size++] = (byte) codePoint;
+            } else if (codePoint < 0x800) {
+                bytes[size++] = (byte) (0xC0 | (codePoint >> 6));
+                bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (codePoint < 0x10000) {
+                bytes[size++] = (byte) (0xE0 | (codePoint >> 12));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
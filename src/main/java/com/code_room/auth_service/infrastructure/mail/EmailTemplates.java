@@ -0,0 +1,72 @@
+package com.code_room.auth_service.infrastructure.mail;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Registry of the email templates under {@code classpath:templates/email/}, compiled once at startup.
+ *
+ * <p>Localized variants follow the {@link java.util.ResourceBundle} naming convention: {@code name_en.html}
+ * or {@code name_en_US.html} next to the default {@code name.html}. Lookups fall back from the most
+ * specific variant to the default template.
+ */
+@Component
+public class EmailTemplates {
+
+    private static final String LOCATION = "classpath:templates/email/*.html";
+    private static final String EXTENSION = ".html";
+
+    @Value("${auth.mail.default-locale:es}")
+    private Locale defaultLocale;
+
+    private final Map<String, EmailTemplate> templates = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                String filename = resource.getFilename();
+                String source = resource.getContentAsString(StandardCharsets.UTF_8);
+                templates.put(filename.substring(0, filename.length() - EXTENSION.length()), EmailTemplate.compile(source));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load email templates", e);
+        }
+    }
+
+    /**
+     * Returns the best variant of a template for a locale.
+     *
+     * @param name   the template name, without locale suffix or extension
+     * @param locale the recipient's locale, or {@code null} for the default locale
+     * @return the matching template
+     * @throws IllegalArgumentException if no variant of the template exists
+     */
+    public EmailTemplate get(String name, Locale locale) {
+        Locale effective = locale != null ? locale : defaultLocale;
+        EmailTemplate template = null;
+        if (!effective.getCountry().isEmpty()) {
+            template = templates.get(name + "_" + effective.getLanguage() + "_" + effective.getCountry());
+        }
+        if (template == null) {
+            template = templates.get(name + "_" + effective.getLanguage());
+        }
+        if (template == null) {
+            template = templates.get(name);
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template " + name);
+        }
+        return template;
+    }
+}
@@ -0,0 +1,29 @@
+package com.code_room.auth_service.infrastructure.mail;
+
+/**
+ * An HTML email waiting in the {@link EmailOutbox}.
+ *
+ * @param from             the sender address
+ * @param to               the recipient address
+ * @param subject          the email subject
+ * @param htmlBody         the UTF-8 encoded HTML body
+ * @param enqueuedAtNanos  {@link System#nanoTime()} when the email was first enqueued
+ * @param attempt          number of failed delivery attempts so far
+ */
+public record OutboundEmail(String from, String to, String subject, byte[] htmlBody,
+                            long enqueuedAtNanos, int attempt) {
+
+    /**
+     * Creates a new email that has not been attempted yet.
+     */
+    public static OutboundEmail of(String from, String to, String subject, byte[] htmlBody) {
+        return new OutboundEmail(from, to, subject, htmlBody, System.nanoTime(), 0);
+    }
+
+    /**
+     * @return a copy of this email for the next delivery attempt
+     */
+    OutboundEmail nextAttempt() {
+        return new OutboundEmail(from, to, subject, htmlBody, enqueuedAtNanos, attempt + 1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.code_room.auth_service.infrastructure.persistence;
+
+import com.code_room.auth_service.infrastructure.persistence.dto.RefreshTokenRecord;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+/**
+ * {@link RefreshTokenRepository} on a relational database, written for MySQL and H2 in MySQL mode.
+ *
+ * <p>Uses the {@code refresh_token} table from {@code db/refresh-token-schema.sql}.
+ */
+public class JdbcRefreshTokenRepository implements RefreshTokenRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcRefreshTokenRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void save(RefreshTokenRecord record) {
+        jdbcTemplate.update(
+                "INSERT INTO refresh_token (jti, family_id, subject, expires_at, rotated_at, revoked) VALUES (?, ?, ?, ?, ?, ?)",
+                record.jti(), record.familyId(), record.subject(), record.expiresAtMillis(),
+                record.rotatedAtMillis(), record.revoked());
+    }
+
+    @Override
+    public boolean saveIfAbsent(RefreshTokenRecord record) {
+        try {
+            save(record);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean markRotated(String jti, long rotatedAtMillis) {
+        return jdbcTemplate.update("UPDATE refresh_token SET rotated_at = ? WHERE jti = ? AND rotated_at = 0",
+                rotatedAtMillis, jti) > 0;
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        jdbcTemplate.update("UPDATE refresh_token SET revoked = TRUE WHERE family_id = ?", familyId);
+    }
+
+    @Override
+    public Optional<RefreshTokenRecord> findByJti(String jti) {
+        return jdbcTemplate.query(
+                "SELECT jti, family_id, subject, expires_at, rotated_at, revoked FROM refresh_token WHERE jti = ?",
+                (rs, rowNum) -> new RefreshTokenRecord(
+                        rs.getString("jti"),
+                        rs.getString("family_id"),
+                        rs.getString("subject"),
+                        rs.getLong("expires_at"),
+                        rs.getLong("rotated_at"),
+                        rs.getBoolean("revoked")),
+                jti).stream().findFirst();
+    }
+
+    @Override
+    public int deleteExpired(long nowMillis) {
+        return jdbcTemplate.update("DELETE FROM refresh_token WHERE expires_at <= ?", nowMillis);
+    }
+}
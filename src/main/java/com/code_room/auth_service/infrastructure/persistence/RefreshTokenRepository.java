@@ -0,0 +1,63 @@
+package com.code_room.auth_service.infrastructure.persistence;
+
+import com.code_room.auth_service.infrastructure.persistence.dto.RefreshTokenRecord;
+
+import java.util.Optional;
+
+/**
+ * Durable backend of the refresh-token store.
+ *
+ * <p>The store reads and claims rotations here on the {@code blockingScheduler} and writes new
+ * tokens through on its own thread, so implementations may block. Several instances may share one
+ * repository.
+ */
+public interface RefreshTokenRepository {
+
+    /**
+     * Persists a newly issued token.
+     *
+     * @param record the token state
+     */
+    void save(RefreshTokenRecord record);
+
+    /**
+     * Persists a token unless one with the same id exists.
+     *
+     * @param record the token state
+     * @return {@code false} if the token was already recorded
+     */
+    boolean saveIfAbsent(RefreshTokenRecord record);
+
+    /**
+     * Records that a token has been exchanged for a new one, unless it already was.
+     *
+     * @param jti             the token id
+     * @param rotatedAtMillis when the token was exchanged, in epoch milliseconds
+     * @return {@code true} if this call rotated the token, {@code false} if it was already rotated
+     *         or is unknown
+     */
+    boolean markRotated(String jti, long rotatedAtMillis);
+
+    /**
+     * Revokes every token of a family.
+     *
+     * @param familyId the family id
+     */
+    void revokeFamily(String familyId);
+
+    /**
+     * Looks up a token.
+     *
+     * @param jti the token id
+     * @return the token state, or empty if it is unknown or was deleted after expiring
+     */
+    Optional<RefreshTokenRecord> findByJti(String jti);
+
+    /**
+     * Deletes the tokens that have expired.
+     *
+     * @param nowMillis the current time, in epoch milliseconds
+     * @return the number of deleted tokens
+     */
+    int deleteExpired(long nowMillis);
+}
@@ -0,0 +1,80 @@
+package com.code_room.auth_service.infrastructure.persistence.config;
+
+import com.code_room.auth_service.infrastructure.persistence.JdbcRefreshTokenRepository;
+import com.code_room.auth_service.infrastructure.persistence.RefreshTokenRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration class for the JDBC backend of the refresh-token store.
+ *
+ * <p>Only active with {@code auth.refresh-tokens.store=jdbc}, which is required to run more than one
+ * instance or to keep revocations across restarts; otherwise refresh tokens are tracked in the memory
+ * of a single instance. The datasource is dedicated to the store and configured under
+ * {@code auth.refresh-tokens.jdbc}, e.g. the MySQL instance from {@code containers/docker-compose.yml}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "auth.refresh-tokens.store", havingValue = "jdbc")
+public class RefreshTokenPersistenceConfig {
+
+    private static final String SCHEMA = "db/refresh-token-schema.sql";
+
+    @Value("${auth.refresh-tokens.jdbc.url}")
+    private String url;
+
+    @Value("${auth.refresh-tokens.jdbc.username:}")
+    private String username;
+
+    @Value("${auth.refresh-tokens.jdbc.password:}")
+    private String password;
+
+    @Value("${auth.refresh-tokens.jdbc.pool-size:5}")
+    private int poolSize;
+
+    @Value("${auth.refresh-tokens.jdbc.initialize-schema:true}")
+    private boolean initializeSchema;
+
+    /**
+     * Creates the connection pool of the refresh-token database and, if enabled, creates its table.
+     *
+     * @return the datasource qualified with "refreshTokenDataSource"
+     */
+    @Bean(destroyMethod = "close")
+    @Qualifier("refreshTokenDataSource")
+    public HikariDataSource refreshTokenDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("refresh-tokens");
+        dataSource.setMaximumPoolSize(poolSize);
+        if (initializeSchema) {
+            DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)), dataSource);
+        }
+        return dataSource;
+    }
+
+    /**
+     * Creates the JDBC repository used by the refresh-token store.
+     *
+     * @param dataSource the refresh-token datasource
+     * @return the repository
+     */
+    @Bean
+    public RefreshTokenRepository refreshTokenRepository(@Qualifier("refreshTokenDataSource") DataSource dataSource) {
+        return new JdbcRefreshTokenRepository(new JdbcTemplate(dataSource));
+    }
+}
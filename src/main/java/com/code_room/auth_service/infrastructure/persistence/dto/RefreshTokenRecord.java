@@ -0,0 +1,16 @@
+package com.code_room.auth_service.infrastructure.persistence.dto;
+
+/**
+ * Persisted state of an issued refresh token.
+ *
+ * @param jti             the token id ({@code jti} claim), or a digest of the token for tokens issued without one
+ * @param familyId        the id of the rotation chain the token belongs to
+ * @param subject         the email of the token owner
+ * @param expiresAtMillis the token expiration, in epoch milliseconds
+ * @param rotatedAtMillis when the token was exchanged for a new one, in epoch milliseconds, or {@code 0}
+ *                        while it is active
+ * @param revoked         whether the token's family has been revoked
+ */
+public record RefreshTokenRecord(String jti, String familyId, String subject, long expiresAtMillis,
+                                 long rotatedAtMillis, boolean revoked) {
+}
@@ -0,0 +1,89 @@
+package com.code_room.auth_service.infrastructure.restclient;
+
+import com.code_room.auth_service.domain.Exception.ServiceUnavailableException;
+import com.code_room.auth_service.infrastructure.controller.dto.LoginDto;
+import com.code_room.auth_service.infrastructure.restclient.dto.UserDto;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * {@link UserApiService} decorator that isolates each operation behind its own bulkhead and circuit breaker.
+ *
+ * <p>The bulkhead caps the calls in flight per operation, so a slow User service cannot tie up the
+ * whole gateway; the circuit breaker stops calling an operation that keeps failing and lets a few
+ * probe calls through once it half-opens. The bulkhead sits outside the circuit breaker, so calls it
+ * turns away under overload are never recorded as successes that keep the circuit closed. Calls
+ * refused by either are failed immediately with a
+ * {@link ServiceUnavailableException}. Both are configured under {@code resilience4j.circuitbreaker}
+ * and {@code resilience4j.bulkhead} with instance names {@code user-api-<operation>}.
+ */
+public class ResilientUserApiService implements UserApiService {
+
+    /**
+     * Prefix of the circuit breaker and bulkhead instance names.
+     */
+    public static final String INSTANCE_PREFIX = "user-api-";
+
+    private final UserApiService delegate;
+
+    private final Map<UserApiOperation, CircuitBreaker> circuitBreakers = new EnumMap<>(UserApiOperation.class);
+
+    private final Map<UserApiOperation, Bulkhead> bulkheads = new EnumMap<>(UserApiOperation.class);
+
+    public ResilientUserApiService(UserApiService delegate, CircuitBreakerRegistry circuitBreakerRegistry,
+                                   BulkheadRegistry bulkheadRegistry) {
+        this.delegate = delegate;
+        for (UserApiOperation operation : UserApiOperation.values()) {
+            circuitBreakers.put(operation, circuitBreakerRegistry.circuitBreaker(INSTANCE_PREFIX + operation.getName()));
+            bulkheads.put(operation, bulkheadRegistry.bulkhead(INSTANCE_PREFIX + operation.getName()));
+        }
+    }
+
+    @Override
+    public Mono<Map<String, String>> createUser(UserDto user, String password) {
+        return guard(UserApiOperation.CREATE_USER, delegate.createUser(user, password));
+    }
+
+    @Override
+    public Mono<UserDto> findByEmail(String email) {
+        return guard(UserApiOperation.FIND_BY_EMAIL, delegate.findByEmail(email));
+    }
+
+    @Override
+    public Mono<Map<String, String>> verifyUser(String code) {
+        return guard(UserApiOperation.VERIFY_USER, delegate.verifyUser(code));
+    }
+
+    @Override
+    public Mono<UserDto> checkUser(LoginDto loginDto) {
+        return guard(UserApiOperation.CHECK_USER, delegate.checkUser(loginDto));
+    }
+
+    /**
+     * @param operation the operation
+     * @return the circuit breaker guarding the operation
+     */
+    public CircuitBreaker getCircuitBreaker(UserApiOperation operation) {
+        return circuitBreakers.get(operation);
+    }
+
+    private <T> Mono<T> guard(UserApiOperation operation, Mono<T> call) {
+        return call
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakers.get(operation)))
+                .transformDeferred(BulkheadOperator.of(bulkheads.get(operation)))
+                .onErrorMap(CallNotPermittedException.class, e -> new ServiceUnavailableException(
+                        "User service is unavailable, please try again later", e))
+                .onErrorMap(BulkheadFullException.class, e -> new ServiceUnavailableException(
+                        "User service is busy, please try again later", e));
+    }
+}
@@ -0,0 +1,24 @@
+package com.code_room.auth_service.infrastructure.restclient;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Decides which {@link UserApiService} errors count as failures of the User service.
+ *
+ * <p>Connection errors, timeouts and 5xx responses are recorded. 4xx responses such as an unknown
+ * email or wrong credentials are ordinary answers and must not open the circuit.
+ */
+public class UserApiFailurePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        return throwable instanceof WebClientRequestException || throwable instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,58 @@
+package com.code_room.auth_service.infrastructure.restclient;
+
+import java.util.Locale;
+
+/**
+ * Operations of {@link UserApiService}, used to apply per-operation client settings.
+ *
+ * <p>Each operation is identified by the URI template of its exchange, which the HTTP interface
+ * client records on every request it sends.
+ */
+public enum UserApiOperation {
+
+    CREATE_USER(UserApiService.CREATE_USER_PATH),
+    FIND_BY_EMAIL(UserApiService.FIND_BY_EMAIL_PATH),
+    VERIFY_USER(UserApiService.VERIFY_USER_PATH),
+    CHECK_USER(UserApiService.CHECK_USER_PATH);
+
+    private final String uriTemplate;
+
+    UserApiOperation(String uriTemplate) {
+        this.uriTemplate = uriTemplate;
+    }
+
+    /**
+     * @return the kebab-case name of the operation, as used in property keys and metric tags
+     */
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * @return the URI template of the operation, relative to the User service base URL
+     */
+    public String getUriTemplate() {
+        return uriTemplate;
+    }
+
+    /**
+     * Finds the operation a request was issued for.
+     *
+     * @param uriTemplate the URI template of the request, possibly prefixed with the base URL; query
+     *                    parameters appended by the client are ignored
+     * @return the matching operation, or {@code null} if the template is unknown
+     */
+    public static UserApiOperation fromUriTemplate(String uriTemplate) {
+        if (uriTemplate == null) {
+            return null;
+        }
+        int query = uriTemplate.indexOf('?');
+        String path = query >= 0 ? uriTemplate.substring(0, query) : uriTemplate;
+        for (UserApiOperation operation : values()) {
+            if (path.equals(operation.uriTemplate) || path.endsWith("/" + operation.uriTemplate)) {
+                return operation;
+            }
+        }
+        return null;
+    }
+}
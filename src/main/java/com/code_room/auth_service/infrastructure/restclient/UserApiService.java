@@ -3,55 +3,65 @@ package com.code_room.auth_service.infrastructure.restclient;
 
 import com.code_room.auth_service.infrastructure.controller.dto.LoginDto;
 import com.code_room.auth_service.infrastructure.restclient.dto.UserDto;
-import retrofit2.Call;
-import retrofit2.http.*;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.PostExchange;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
 
 
 /**
- * Retrofit interface defining the REST client methods to interact with the external User API.
+ * Declarative HTTP interface defining the REST client methods to interact with the external User API.
  *
  * <p>Provides operations to create users, find users by email, verify users, and check user credentials.
+ * Every method is non-blocking and completes when the response has been received.
  */
 public interface UserApiService {
 
+    String CREATE_USER_PATH = "users/create";
+    String FIND_BY_EMAIL_PATH = "users/email/{email}";
+    String VERIFY_USER_PATH = "users/verify";
+    String CHECK_USER_PATH = "users/user-check";
+
     /**
      * Creates a new user with the provided user details and password.
      *
      * @param user the user data transfer object containing user information
      * @param password the password for the new user
-     * @return a Call object wrapping a Map containing response data (e.g., verification code)
+     * @return a Mono emitting a Map containing response data (e.g., verification code)
      */
-    @POST("users/create")
-    Call<Map<String, String>> createUser(@Body UserDto user, @Query("password") String password);
+    @PostExchange(CREATE_USER_PATH)
+    Mono<Map<String, String>> createUser(@RequestBody UserDto user, @RequestParam("password") String password);
 
     /**
      * Retrieves user details by their email address.
      *
      * @param email the email address of the user to find
-     * @return a Call object wrapping the UserDto if found
+     * @return a Mono emitting the UserDto if found
      */
-    @GET("users/email/{email}")
-    Call<UserDto> findByEmail(@Path("email") String email);
+    @GetExchange(FIND_BY_EMAIL_PATH)
+    Mono<UserDto> findByEmail(@PathVariable("email") String email);
 
     /**
      * Verifies a user's account using a verification code.
      *
      * @param code the verification code sent to the user
-     * @return a Call object wrapping a Map with verification result information
+     * @return a Mono emitting a Map with verification result information
      */
-    @GET("users/verify")
-    Call<Map<String, String>> verifyUser(@Query("code") String code);
+    @GetExchange(VERIFY_USER_PATH)
+    Mono<Map<String, String>> verifyUser(@RequestParam("code") String code);
 
     /**
      * Checks user credentials for authentication.
      *
      * @param loginDto the login data transfer object containing user credentials (email and password)
-     * @return a Call object wrapping the UserDto if the credentials are valid
+     * @return a Mono emitting the UserDto if the credentials are valid
      */
-    @POST("users/user-check")
-    Call<UserDto> checkUser(@Body LoginDto loginDto);
+    @PostExchange(CHECK_USER_PATH)
+    Mono<UserDto> checkUser(@RequestBody LoginDto loginDto);
 
 }
@@ -0,0 +1,108 @@
+package com.code_room.auth_service.infrastructure.restclient.config;
+
+import com.code_room.auth_service.infrastructure.restclient.UserApiOperation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records the time to the response headers of every User service call as {@code auth.user-api.requests},
+ * tagged with the {@link UserApiOperation} and the HTTP status, or {@code TIMEOUT} and {@code CLIENT_ERROR}
+ * for calls that got no response.
+ *
+ * <p>Timers are resolved once per operation and status and then served from an array, so recording a
+ * call allocates nothing and never goes through the registry.
+ */
+public class UserApiMetricsFilter implements ExchangeFilterFunction {
+
+    /**
+     * Request attribute holding the URI template, as set by {@code DefaultWebClient}.
+     */
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+    private static final String UNKNOWN_OPERATION = "unknown";
+
+    private static final int STATUS_CODES = 600;
+
+    private static final int TIMEOUT = STATUS_CODES;
+
+    private static final int CLIENT_ERROR = STATUS_CODES + 1;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UserApiOperation, AtomicReferenceArray<Timer>> timers = new EnumMap<>(UserApiOperation.class);
+
+    private final AtomicReferenceArray<Timer> unknownOperationTimers = new AtomicReferenceArray<>(CLIENT_ERROR + 1);
+
+    public UserApiMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (UserApiOperation operation : UserApiOperation.values()) {
+            timers.put(operation, new AtomicReferenceArray<>(CLIENT_ERROR + 1));
+        }
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String uriTemplate = (String) request.attribute(URI_TEMPLATE_ATTRIBUTE).orElse(null);
+        UserApiOperation operation = UserApiOperation.fromUriTemplate(uriTemplate);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnNext(response -> record(operation, statusIndex(response.statusCode().value()), start))
+                    .doOnError(e -> record(operation, isTimeout(e) ? TIMEOUT : CLIENT_ERROR, start));
+        });
+    }
+
+    private void record(UserApiOperation operation, int status, long start) {
+        timer(operation, status).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(UserApiOperation operation, int status) {
+        AtomicReferenceArray<Timer> byStatus = operation != null ? timers.get(operation) : unknownOperationTimers;
+        Timer timer = byStatus.get(status);
+        if (timer == null) {
+            timer = Timer.builder("auth.user-api.requests")
+                    .description("Time to the response headers of a User service call")
+                    .tag("operation", operation != null ? operation.getName() : UNKNOWN_OPERATION)
+                    .tag("status", statusTag(status))
+                    .register(meterRegistry);
+            byStatus.set(status, timer);
+        }
+        return timer;
+    }
+
+    /**
+     * Whether a call failed on the call timeout or on the Netty response timeout, which WebClient wraps.
+     */
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof TimeoutException || e instanceof io.netty.handler.timeout.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int statusIndex(int statusCode) {
+        return statusCode >= 0 && statusCode < STATUS_CODES ? statusCode : CLIENT_ERROR;
+    }
+
+    private static String statusTag(int status) {
+        return switch (status) {
+            case TIMEOUT -> "TIMEOUT";
+            case CLIENT_ERROR -> "CLIENT_ERROR";
+            default -> String.valueOf(status);
+        };
+    }
+}
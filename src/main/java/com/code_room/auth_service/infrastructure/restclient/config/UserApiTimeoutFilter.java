@@ -0,0 +1,48 @@
+package com.code_room.auth_service.infrastructure.restclient.config;
+
+import com.code_room.auth_service.infrastructure.restclient.UserApiOperation;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+
+/**
+ * Applies the response and call timeouts of the {@link UserApiOperation} a request belongs to.
+ *
+ * <p>The operation is resolved from the URI template that {@link WebClient} records as a request
+ * attribute for every exchange issued by the HTTP interface client.
+ */
+public class UserApiTimeoutFilter implements ExchangeFilterFunction {
+
+    /**
+     * Request attribute holding the URI template, as set by {@code DefaultWebClient}.
+     */
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+    private final UserClientProperties properties;
+
+    public UserApiTimeoutFilter(UserClientProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String uriTemplate = (String) request.attribute(URI_TEMPLATE_ATTRIBUTE).orElse(null);
+        UserClientProperties.Timeouts timeouts = properties.timeoutsFor(UserApiOperation.fromUriTemplate(uriTemplate));
+
+        ClientRequest timed = request;
+        if (timeouts.getResponse() != null) {
+            timed = ClientRequest.from(request)
+                    .httpRequest(httpRequest -> {
+                        HttpClientRequest nativeRequest = httpRequest.getNativeRequest();
+                        nativeRequest.responseTimeout(timeouts.getResponse());
+                    })
+                    .build();
+        }
+        Mono<ClientResponse> response = next.exchange(timed);
+        return timeouts.getCall() != null ? response.timeout(timeouts.getCall()) : response;
+    }
+}
@@ -0,0 +1,104 @@
+package com.code_room.auth_service.infrastructure.restclient.config;
+
+import com.code_room.auth_service.infrastructure.restclient.ResilientUserApiService;
+import com.code_room.auth_service.infrastructure.restclient.UserApiService;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.support.WebClientAdapter;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Configuration class for setting up the User service client.
+ * <p>
+ * Provides a non-blocking {@link WebClient} on Reactor Netty and the declarative
+ * {@link UserApiService} built on top of it, so calls to the User service never block
+ * a request thread. All calls share one connection pool, sized and timed out according to
+ * {@link UserClientProperties}; pool utilization is published as
+ * {@code reactor.netty.connection.provider.*} metrics tagged {@code name=user-service}, and
+ * call latency by operation and status as {@code auth.user-api.requests}.
+ * </p>
+ */
+@Configuration
+@EnableConfigurationProperties(UserClientProperties.class)
+public class UserClientConfig {
+
+  private static final String POOL_NAME = "user-service";
+
+  /**
+   * Creates the connection pool shared by all User service calls.
+   *
+   * @param properties the User service client profile
+   * @return the connection provider qualified with "userConnectionProvider"
+   */
+  @Bean(destroyMethod = "dispose")
+  @Qualifier("userConnectionProvider")
+  public ConnectionProvider userConnectionProvider(UserClientProperties properties) {
+    UserClientProperties.Pool pool = properties.getPool();
+    return ConnectionProvider.builder(POOL_NAME)
+            .maxConnections(pool.getMaxConnections())
+            .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+            .maxIdleTime(pool.getMaxIdleTime())
+            .maxLifeTime(pool.getMaxLifeTime())
+            .evictInBackground(pool.getEvictInBackground())
+            .metrics(true)
+            .build();
+  }
+
+  /**
+   * Creates and configures a WebClient for the User API service.
+   *
+   * @param builder            the WebClient builder configured by Spring Boot
+   * @param properties         the User service client profile
+   * @param connectionProvider the shared User service connection pool
+   * @param meterRegistry      the registry the call latencies are recorded in
+   * @return configured WebClient qualified with "userWebClient"
+   */
+  @Bean
+  @Qualifier("userWebClient")
+  public WebClient userWebClient(WebClient.Builder builder, UserClientProperties properties,
+                                 @Qualifier("userConnectionProvider") ConnectionProvider connectionProvider,
+                                 MeterRegistry meterRegistry) {
+    HttpClient httpClient = HttpClient.create(connectionProvider)
+            .protocol(properties.getProtocols().toArray(HttpProtocol[]::new))
+            .keepAlive(true)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis());
+
+    return builder
+            .baseUrl(properties.getUrl())
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .filter(new UserApiMetricsFilter(meterRegistry))
+            .filter(new UserApiTimeoutFilter(properties))
+            .build();
+  }
+
+  /**
+   * Creates a UserApiService bean backed by the configured WebClient, with every operation
+   * guarded by its own circuit breaker and bulkhead.
+   *
+   * @param userWebClient          the WebClient instance qualified with "userWebClient"
+   * @param circuitBreakerRegistry the registry of the per-operation circuit breakers
+   * @param bulkheadRegistry       the registry of the per-operation bulkheads
+   * @return the UserApiService proxy instance
+   */
+  @Bean
+  public static UserApiService getUserApiService(@Qualifier("userWebClient") WebClient userWebClient,
+                                                 CircuitBreakerRegistry circuitBreakerRegistry,
+                                                 BulkheadRegistry bulkheadRegistry) {
+    UserApiService client = HttpServiceProxyFactory.builderFor(WebClientAdapter.create(userWebClient))
+            .build()
+            .createClient(UserApiService.class);
+    return new ResilientUserApiService(client, circuitBreakerRegistry, bulkheadRegistry);
+  }
+}
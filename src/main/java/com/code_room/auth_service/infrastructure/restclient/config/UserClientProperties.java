@@ -0,0 +1,121 @@
+package com.code_room.auth_service.infrastructure.restclient.config;
+
+import com.code_room.auth_service.infrastructure.restclient.UserApiOperation;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client profile for the User service, bound from {@code spring.application.restclient.user}.
+ *
+ * <p>Covers the shared connection pool, the HTTP protocols offered to the server and the timeouts
+ * applied to each {@link UserApiOperation}. Operations without an entry under {@code operations}
+ * use the default {@code timeout}.
+ */
+@Data
+@ConfigurationProperties(prefix = "spring.application.restclient.user")
+public class UserClientProperties {
+
+    /**
+     * Base URL of the User service.
+     */
+    private String url;
+
+    /**
+     * Protocols offered to the User service; add {@code H2C} to use HTTP/2 over cleartext when the server supports it.
+     */
+    private List<HttpProtocol> protocols = List.of(HttpProtocol.HTTP11);
+
+    /**
+     * Maximum time to establish a new connection.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Pool pool = new Pool();
+
+    /**
+     * Timeouts of operations without their own entry.
+     */
+    private Timeouts timeout = new Timeouts();
+
+    /**
+     * Timeouts by operation, e.g. {@code operations.create-user.call=15s}.
+     */
+    private Map<UserApiOperation, Timeouts> operations = new EnumMap<>(UserApiOperation.class);
+
+    /**
+     * Returns the timeouts that apply to an operation.
+     *
+     * @param operation the operation, or {@code null} for requests not issued through {@code UserApiService}
+     * @return the operation timeouts, or the defaults
+     */
+    public Timeouts timeoutsFor(UserApiOperation operation) {
+        Timeouts timeouts = operation != null ? operations.get(operation) : null;
+        if (timeouts == null) {
+            return timeout;
+        }
+        Timeouts effective = new Timeouts();
+        effective.setResponse(timeouts.getResponse() != null ? timeouts.getResponse() : timeout.getResponse());
+        effective.setCall(timeouts.getCall() != null ? timeouts.getCall() : timeout.getCall());
+        return effective;
+    }
+
+    /**
+     * Settings of the connection pool shared by all User service calls.
+     */
+    @Data
+    public static class Pool {
+
+        /**
+         * Maximum connections kept open to the User service host.
+         */
+        private int maxConnections = 50;
+
+        /**
+         * Maximum requests waiting for a free connection before new ones are rejected.
+         */
+        private int pendingAcquireMaxCount = 200;
+
+        /**
+         * Maximum time a request waits for a free connection.
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Time an idle connection is kept alive for reuse.
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * Maximum lifetime of a connection, so the pool follows changes behind the service address.
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * Interval of the background eviction of idle and expired connections.
+         */
+        private Duration evictInBackground = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Timeouts of a single call.
+     */
+    @Data
+    public static class Timeouts {
+
+        /**
+         * Maximum time without receiving data once the request has been sent.
+         */
+        private Duration response;
+
+        /**
+         * Maximum time from acquiring a connection to receiving the response headers.
+         */
+        private Duration call;
+    }
+}
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS refresh_token (
+    jti        VARCHAR(64)  NOT NULL PRIMARY KEY,
+    family_id  VARCHAR(36)  NOT NULL,
+    subject    VARCHAR(255) NOT NULL,
+    expires_at BIGINT       NOT NULL,
+    rotated_at BIGINT       NOT NULL DEFAULT 0,
+    revoked    BOOLEAN      NOT NULL DEFAULT FALSE,
+    INDEX idx_refresh_token_family (family_id),
+    INDEX idx_refresh_token_expires_at (expires_at)
+);
@@ -0,0 +1,203 @@
+package com.code_room.auth_service.benchmark;
+
+import com.code_room.auth_service.config.jwt.JwtAuthenticationFilter;
+import com.code_room.auth_service.config.jwt.JwtClaimsResolver;
+import com.code_room.auth_service.config.jwt.JwtFilter;
+import com.code_room.auth_service.config.jwt.JwtKeyProvider;
+import com.code_room.auth_service.config.jwt.JwtPreValidator;
+import com.code_room.auth_service.config.jwt.JwtService;
+import com.code_room.auth_service.config.jwt.PathPolicyProperties;
+import com.code_room.auth_service.config.jwt.RefreshTokenStore;
+import com.code_room.auth_service.config.jwt.RevokedTokenList;
+import com.code_room.auth_service.config.jwt.VerifiedTokenCache;
+import com.code_room.auth_service.domain.Enum.Role;
+import com.code_room.auth_service.infrastructure.restclient.dto.UserDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-request authentication paths: issuing tokens on login, verifying a bearer token, and the
+ * gateway and WebFlux filters that run on every proxied or local request.
+ *
+ * <p>Components are wired by hand with the defaults of {@code application.yml}, so the numbers are
+ * those of a cold verified-token cache. The filter benchmarks include building the mock exchange,
+ * which is measured on its own by {@link #mockExchange()} to be subtracted. Run through the
+ * {@code benchmark} Maven profile to also get latency percentiles and allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthHotPathBenchmark {
+
+    private static final String SECRET =
+            "gKZpDd8M3vXt7XLGlbZG2dFv1F5LSK+QAcX9A4qVq2aLbEEMww6slvENxwX+9Q27FO3EtzNbdRYJ7xKAlv3dMw==";
+
+    private static final String PROXIED_PATH = "/services/be/offer-service/offers";
+
+    private static final GatewayFilterChain GATEWAY_CHAIN = exchange -> Mono.empty();
+
+    private static final WebFilterChain WEB_CHAIN = exchange -> Mono.empty();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JwtService jwtService;
+
+    private JwtAuthenticationFilter gatewayFilter;
+
+    private JwtFilter webFilter;
+
+    private UserDto user;
+
+    private String authorization;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtKeyProvider keyProvider = new JwtKeyProvider();
+        keyProvider.reload(SECRET);
+
+        RevokedTokenList revokedTokenList = new RevokedTokenList();
+        ReflectionTestUtils.setField(revokedTokenList, "expirationMillis", 86_400_000L);
+        ReflectionTestUtils.setField(revokedTokenList, "bucketWidth", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(revokedTokenList, "expectedPerBucket", 10_000);
+        ReflectionTestUtils.setField(revokedTokenList, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(revokedTokenList, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(revokedTokenList, "init");
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "expirationMillis", 86_400_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpirationMillis", 604_800_000L);
+        ReflectionTestUtils.setField(jwtService, "keyProvider", keyProvider);
+        ReflectionTestUtils.setField(jwtService, "revokedTokenList", revokedTokenList);
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(jwtService, "reuseGrace", Duration.ofSeconds(10));
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        JwtPreValidator preValidator = new JwtPreValidator();
+        ReflectionTestUtils.setField(preValidator, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(preValidator, "enabled", true);
+        ReflectionTestUtils.setField(preValidator, "maxLength", 8192);
+        ReflectionTestUtils.setField(preValidator, "algorithms", Set.of("HS256", "ES256", "EdDSA"));
+        ReflectionTestUtils.invokeMethod(preValidator, "init");
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(verifiedTokenCache, "init");
+
+        JwtClaimsResolver claimsResolver = new JwtClaimsResolver();
+        ReflectionTestUtils.setField(claimsResolver, "jwtService", jwtService);
+        ReflectionTestUtils.setField(claimsResolver, "preValidator", preValidator);
+        ReflectionTestUtils.setField(claimsResolver, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(claimsResolver, "revokedTokenList", revokedTokenList);
+
+        gatewayFilter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(gatewayFilter, "claimsResolver", claimsResolver);
+        ReflectionTestUtils.setField(gatewayFilter, "policyProperties", new PathPolicyProperties());
+        ReflectionTestUtils.setField(gatewayFilter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(gatewayFilter, "init");
+
+        webFilter = new JwtFilter();
+        ReflectionTestUtils.setField(webFilter, "claimsResolver", claimsResolver);
+        ReflectionTestUtils.setField(webFilter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(webFilter, "statelessEnabled", true);
+        ReflectionTestUtils.setField(webFilter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(webFilter, "init");
+
+        user = UserDto.builder()
+                .id("64f1c0d2a9e4b3f0c1d2e3f4")
+                .email("user@coderoom.com")
+                .role(Role.CLIENT)
+                .build();
+        token = jwtService.generateToken(user);
+        authorization = "Bearer " + token;
+    }
+
+    /**
+     * Drops the refresh tokens issued during an iteration, so the store does not grow across the run.
+     */
+    @Setup(Level.Iteration)
+    public void resetRefreshTokens() {
+        RefreshTokenStore refreshTokenStore = new RefreshTokenStore();
+        ReflectionTestUtils.setField(refreshTokenStore, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(refreshTokenStore, "reuseGrace", Duration.ofSeconds(10));
+        ReflectionTestUtils.invokeMethod(refreshTokenStore, "init");
+        ReflectionTestUtils.setField(jwtService, "refreshTokenStore", refreshTokenStore);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(user);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtService.extractAllClaims(token);
+    }
+
+    /**
+     * The login response as written to the client: both tokens issued and the map serialized.
+     */
+    @Benchmark
+    public byte[] buildResponseLogin() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(jwtService.buildResponseLogin(user));
+    }
+
+    @Benchmark
+    public MockServerWebExchange mockExchange() {
+        return exchange();
+    }
+
+    @Benchmark
+    public Object gatewayFilter() {
+        MockServerWebExchange exchange = exchange();
+        gatewayFilter.filter(exchange, GATEWAY_CHAIN).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public Object webFilter() {
+        MockServerWebExchange exchange = exchange();
+        webFilter.filter(exchange, WEB_CHAIN).block();
+        return exchange;
+    }
+
+    private MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(PROXIED_PATH)
+                .header(HttpHeaders.AUTHORIZATION, authorization));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthHotPathBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.code_room.auth_service.benchmark;
+
+import com.code_room.auth_service.infrastructure.mail.EmailTemplate;
+import com.code_room.auth_service.infrastructure.mail.EmailTemplates;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building the registration email body by string concatenation (the previous
+ * {@code generateRegistrationSuccessBody}) against rendering the precompiled template.
+ * Both produce the UTF-8 bytes handed to the mail transport.
+ *
+ * <p>Run with {@code -prof gc} to compare {@code gc.alloc.rate.norm}, the bytes allocated per send.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final String NAME = "Ana María";
+    private static final String CODE = "482913";
+
+    private EmailTemplate template;
+
+    @Setup
+    public void setup() {
+        EmailTemplates templates = new EmailTemplates();
+        ReflectionTestUtils.setField(templates, "defaultLocale", Locale.forLanguageTag("es"));
+        ReflectionTestUtils.invokeMethod(templates, "init");
+        template = templates.get("registration-success", null);
+    }
+
+    @Benchmark
+    public byte[] concatenation() {
+        return generateRegistrationSuccessBody(NAME, CODE).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] precompiledTemplate() {
+        return template.render(Map.of("name", NAME, "code", CODE));
+    }
+
+    private static String generateRegistrationSuccessBody(String name, String code) {
+        return "<!DOCTYPE html>" +
+                "<html><head><style>" +
+                "body { font-family: Arial, sans-serif; margin: 20px; color: #333; }" +
+                ".container { background-color: #eef4ff; padding: 30px; border-radius: 10px; border: 1px solid #ccc; }" +
+                "h2 { color: #1f3b75; }" +
+                "p { font-size: 16px; line-height: 1.6; }" +
+                ".code-box { margin-top: 20px; padding: 15px; background: #dceeff; border-radius: 8px; font-size: 20px; font-weight: bold; text-align: center; color: #0a3d62; }" +
+                ".btn { display:inline-block; margin-top:25px; padding:12px 20px; background:#1f3b75; color:#fff; text-decoration:none; border-radius:6px; font-weight:600; }" +
+                ".footer { margin-top: 30px; font-size: 12px; color: #888; }" +
+                "</style></head><body>" +
+                "<div class='container'>" +
+                "<h2>¡Hola, " + name + "! 👋</h2>" +
+                "<p>¡Bienvenido a <strong>Code Room</strong>! 💻 Estamos muy emocionados de tenerte como parte de nuestra comunidad de desarrolladores. 🤍</p>" +
+                "<p>Tu cuenta ha sido registrada correctamente. Para completar tu registro, por favor usa el siguiente código de verificación</p>" +
+                "<div class='code-box'>" + code + "</div>" +
+                "<p>En el siguiente link</p> " +
+                "<a href='https://victorious-water-0ec758310.2.azurestaticapps.net/verificacion' class='btn'>https://victorious-water-0ec758310.2.azurestaticapps.net/verificacion</a>" +
+                "<p style='margin-top:25px;'>Si no fuiste tú quien realizó esta solicitud, puedes ignorar este mensaje.</p>" +
+                "<p>¡Gracias por formar parte de <strong>Code Room</strong>! 🚀</p>" +
+                "<p><strong>– El equipo de Code Room 🧠</strong></p>" +
+                "<div class='footer'>Este es un mensaje automático. Por favor, no respondas a este correo.</div>" +
+                "</div></body></html>";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.code_room.auth_service.benchmark;
+
+import com.code_room.auth_service.config.jwt.JwtKeyProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares signing and verifying throughput of the supported {@code jwt.algorithm}s.
+ *
+ * <p>HS256 is cheapest but needs the shared secret wherever tokens are verified; ES256 and EdDSA
+ * cost more per operation, and verification is then spread over every downstream service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    private static final String SECRET =
+            "gKZpDd8M3vXt7XLGlbZG2dFv1F5LSK+QAcX9A4qVq2aLbEEMww6slvENxwX+9Q27FO3EtzNbdRYJ7xKAlv3dMw==";
+
+    @Param({"HS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private JwtKeyProvider keyProvider;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        keyProvider = new JwtKeyProvider();
+        keyProvider.reload(algorithm, SECRET, null);
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return keyProvider.sign(Jwts.builder()
+                .subject("user@coderoom.com")
+                .claim("role", "CLIENT")
+                .claim("user_id", "42")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000)));
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return keyProvider.getParser()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAlgorithmBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
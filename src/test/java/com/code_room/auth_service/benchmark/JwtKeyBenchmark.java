@@ -0,0 +1,85 @@
+package com.code_room.auth_service.benchmark;
+
+import com.code_room.auth_service.config.jwt.JwtKeyProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares signing and verifying a token with key material derived on every call
+ * (the previous behaviour) against the shared {@link JwtKeyProvider}.
+ *
+ * <p>Run with {@code -prof gc} to see the allocation difference per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtKeyBenchmark {
+
+    private static final String SECRET =
+            "gKZpDd8M3vXt7XLGlbZG2dFv1F5LSK+QAcX9A4qVq2aLbEEMww6slvENxwX+9Q27FO3EtzNbdRYJ7xKAlv3dMw==";
+
+    private JwtKeyProvider keyProvider;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        keyProvider = new JwtKeyProvider();
+        keyProvider.reload(SECRET);
+        token = sharedSign();
+    }
+
+    @Benchmark
+    public String perCallSign() {
+        return Jwts.builder()
+                .subject("user@coderoom.com")
+                .claim("role", "CLIENT")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)), Jwts.SIG.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String sharedSign() {
+        return keyProvider.sign(Jwts.builder()
+                .subject("user@coderoom.com")
+                .claim("role", "CLIENT")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000)));
+    }
+
+    @Benchmark
+    public Claims perCallVerify() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims sharedVerify() {
+        return keyProvider.getParser()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtKeyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
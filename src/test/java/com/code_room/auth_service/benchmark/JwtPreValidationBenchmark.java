@@ -0,0 +1,88 @@
+package com.code_room.auth_service.benchmark;
+
+import com.code_room.auth_service.config.jwt.JwtKeyProvider;
+import com.code_room.auth_service.config.jwt.JwtPreValidator;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rejecting junk tokens with the full jjwt parse against {@link JwtPreValidator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtPreValidationBenchmark {
+
+    private static final String SECRET =
+            "gKZpDd8M3vXt7XLGlbZG2dFv1F5LSK+QAcX9A4qVq2aLbEEMww6slvENxwX+9Q27FO3EtzNbdRYJ7xKAlv3dMw==";
+
+    @Param({"expired", "truncated", "garbage"})
+    public String kind;
+
+    private JwtKeyProvider keyProvider;
+
+    private JwtPreValidator preValidator;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        keyProvider = new JwtKeyProvider();
+        keyProvider.reload(SECRET);
+        preValidator = new JwtPreValidator();
+        ReflectionTestUtils.setField(preValidator, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(preValidator, "enabled", true);
+        ReflectionTestUtils.setField(preValidator, "maxLength", 8192);
+        ReflectionTestUtils.setField(preValidator, "algorithms", Set.of("HS256"));
+        ReflectionTestUtils.invokeMethod(preValidator, "init");
+
+        String expired = keyProvider.sign(Jwts.builder()
+                .subject("user@coderoom.com")
+                .claim("role", "CLIENT")
+                .issuedAt(new Date(System.currentTimeMillis() - 7_200_000))
+                .expiration(new Date(System.currentTimeMillis() - 3_600_000)));
+        token = switch (kind) {
+            case "expired" -> expired;
+            case "truncated" -> expired.substring(0, expired.lastIndexOf('.'));
+            default -> "Zm9vYmFy." + "x".repeat(400) + ".c2ln";
+        };
+    }
+
+    @Benchmark
+    public Object fullParse() {
+        try {
+            return keyProvider.getParser().parseSignedClaims(token);
+        } catch (JwtException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object preValidate() {
+        try {
+            preValidator.check(token);
+            return token;
+        } catch (JwtException e) {
+            return e;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtPreValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
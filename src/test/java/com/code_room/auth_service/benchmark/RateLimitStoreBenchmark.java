@@ -0,0 +1,65 @@
+package com.code_room.auth_service.benchmark;
+
+import com.code_room.auth_service.config.ratelimit.InMemoryRateLimitStore;
+import com.code_room.auth_service.config.ratelimit.RateLimitProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of the in-memory gateway rate limit across many subjects,
+ * with one thread and with contended threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitStoreBenchmark {
+
+    private InMemoryRateLimitStore store;
+
+    private RateLimitProperties.Limit limit;
+
+    private String[] subjects;
+
+    @Setup
+    public void setup() {
+        RateLimitProperties properties = new RateLimitProperties();
+        store = new InMemoryRateLimitStore();
+        ReflectionTestUtils.setField(store, "properties", properties);
+        limit = new RateLimitProperties.Limit();
+        limit.setCapacity(1_000_000);
+        limit.setPeriod(Duration.ofSeconds(1));
+        subjects = new String[100_000];
+        for (int i = 0; i < subjects.length; i++) {
+            subjects[i] = "user" + i + "@coderoom.com";
+        }
+    }
+
+    @Benchmark
+    public Mono<Duration> tryAcquire() {
+        return store.tryAcquire("gateway.offer-service.subject", limit,
+                subjects[ThreadLocalRandom.current().nextInt(subjects.length)]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Mono<Duration> tryAcquireContended() {
+        return tryAcquire();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitStoreBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.code_room.auth_service.benchmark;
+
+import com.code_room.auth_service.infrastructure.restclient.UserApiService;
+import com.code_room.auth_service.infrastructure.restclient.config.UserApiMetricsFilter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the per-stage timers on a Prometheus registry configured like {@code application.yml},
+ * with percentile histograms between 10 µs and 30 s.
+ *
+ * <p>The budget is 250 ns and no allocation per recorded stage: {@link #recordStage()} against
+ * {@link #clockOnly()} is the cost added to each of {@code auth.jwt.verify}, {@code auth.jwt.lookup},
+ * {@code auth.jwt.issue} and {@code auth.mail.send}, under 1% of a token verification or signature.
+ * {@link UserApiMetricsFilter} may add up to 1 µs to a User service call ({@link #userApiCall()}
+ * against {@link #bareUserApiCall()}), as it also wraps the reactive exchange; that call is a network
+ * round trip of at least a millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StageTimerBenchmark {
+
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+    private Timer timer;
+
+    private UserApiMetricsFilter userApiFilter;
+
+    private ExchangeFunction exchange;
+
+    private ClientRequest request;
+
+    @Setup
+    public void setup() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) TimeUnit.MICROSECONDS.toNanos(10))
+                        .maximumExpectedValue((double) TimeUnit.SECONDS.toNanos(30))
+                        .build()
+                        .merge(config);
+            }
+        });
+        timer = Timer.builder("auth.jwt.verify").tag("outcome", "authorized").register(registry);
+        userApiFilter = new UserApiMetricsFilter(registry);
+
+        ClientResponse response = ClientResponse.create(HttpStatus.OK).build();
+        exchange = clientRequest -> Mono.just(response);
+        request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/users/email/user@coderoom.com"))
+                .attribute(URI_TEMPLATE_ATTRIBUTE, UserApiService.FIND_BY_EMAIL_PATH)
+                .build();
+    }
+
+    @Benchmark
+    public long clockOnly() {
+        long start = System.nanoTime();
+        return System.nanoTime() - start;
+    }
+
+    @Benchmark
+    public long recordStage() {
+        long start = System.nanoTime();
+        long elapsed = System.nanoTime() - start;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        return elapsed;
+    }
+
+    @Benchmark
+    public ClientResponse bareUserApiCall() {
+        return exchange.exchange(request).block();
+    }
+
+    @Benchmark
+    public ClientResponse userApiCall() {
+        return userApiFilter.filter(request, exchange).block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StageTimerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package com.code_room.auth_service.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SchedulerConfigTest {
+
+    private final SchedulerConfig config = new SchedulerConfig();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private Scheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    void runsBlockingCallsOnPlatformThreadsByDefault() {
+        scheduler = scheduler(false, 2);
+
+        Boolean virtual = Mono.fromCallable(() -> Thread.currentThread().isVirtual())
+                .subscribeOn(scheduler)
+                .block(Duration.ofSeconds(5));
+
+        assertThat(virtual).isFalse();
+        assertThat(meterRegistry.find("auth.scheduler.blocking.scheduler.tasks.completed").tag("threads", "platform").timer())
+                .isNotNull();
+    }
+
+    @Test
+    void keepsManySlowCallsInFlightOnVirtualThreads() {
+        int calls = 200;
+        scheduler = scheduler(true, calls);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        Flux.range(0, calls)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    Thread.sleep(200);
+                    inFlight.decrementAndGet();
+                    return Thread.currentThread().isVirtual();
+                }).subscribeOn(scheduler), calls)
+                .doOnNext(virtual -> assertThat(virtual).isTrue())
+                .blockLast(Duration.ofSeconds(10));
+
+        assertThat(peak.get()).isGreaterThan(16);
+        // The timer records after a task returns, which can be just after its value reached the subscriber.
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(meterRegistry
+                .find("auth.scheduler.blocking.scheduler.tasks.completed").tag("threads", "virtual").timer().count())
+                .isEqualTo(calls));
+    }
+
+    private Scheduler scheduler(boolean virtualThreads, int virtualThreadCap) {
+        ReflectionTestUtils.setField(config, "threadCap", 2);
+        ReflectionTestUtils.setField(config, "queuedTaskCap", 1000);
+        ReflectionTestUtils.setField(config, "ttlSeconds", 60);
+        ReflectionTestUtils.setField(config, "virtualThreads", virtualThreads);
+        ReflectionTestUtils.setField(config, "virtualThreadCap", virtualThreadCap);
+        return config.blockingScheduler(meterRegistry);
+    }
+}
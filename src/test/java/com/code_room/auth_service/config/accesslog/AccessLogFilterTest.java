@@ -0,0 +1,160 @@
+package com.code_room.auth_service.config.accesslog;
+
+import com.code_room.auth_service.config.jwt.JwtClaimsResolver;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccessLogFilterTest {
+
+    @Mock
+    private AccessLog accessLog;
+
+    @InjectMocks
+    private AccessLogFilter filter;
+
+    private final AccessLogProperties properties = new AccessLogProperties();
+
+    @BeforeEach
+    void setUp() {
+        AccessLogProperties.Route stream = new AccessLogProperties.Route();
+        stream.setVerbosity(AccessLogVerbosity.NONE);
+        AccessLogProperties.Route offers = new AccessLogProperties.Route();
+        offers.setVerbosity(AccessLogVerbosity.FULL);
+        properties.getRoutes().put("stream-ws", stream);
+        properties.getRoutes().put("offer-service", offers);
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        filter.init();
+    }
+
+    @Test
+    void recordsTheRouteSubjectStatusAndTimingsOfAnExchange() {
+        MockServerWebExchange exchange = exchange("offer-service", "/services/be/offer-service/offers?page=2");
+        exchange.getAttributes().put(JwtClaimsResolver.CLAIMS_ATTRIBUTE,
+                Jwts.claims().subject("user@coderoom.com").build());
+
+        filter.filter(exchange, respondWith(HttpStatus.OK)).block(Duration.ofSeconds(1));
+
+        ArgumentCaptor<AccessLogRecord> record = ArgumentCaptor.forClass(AccessLogRecord.class);
+        verify(accessLog).append(record.capture());
+        assertThat(record.getValue().route()).isEqualTo("offer-service");
+        assertThat(record.getValue().subject()).isEqualTo("user@coderoom.com");
+        assertThat(record.getValue().status()).isEqualTo(200);
+        assertThat(record.getValue().commitNanos()).isBetween(0L, record.getValue().durationNanos());
+        assertThat(record.getValue().query()).isEqualTo("page=2");
+        assertThat(record.getValue().userAgent()).isEqualTo("load-balancer");
+
+        StringBuilder json = new StringBuilder();
+        record.getValue().appendJson(json);
+        assertThat(json.toString()).contains("\"route\":\"offer-service\"", "\"status\":200", "\"query\":\"page=2\"");
+    }
+
+    @Test
+    void redactsSensitiveQueryParameters() {
+        MockServerWebExchange exchange = exchange("offer-service",
+                "/services/be/offer-service/offers?email=user@coderoom.com&password=hunter2&Refresh_Token=abc&code");
+
+        filter.filter(exchange, respondWith(HttpStatus.OK)).block(Duration.ofSeconds(1));
+
+        ArgumentCaptor<AccessLogRecord> record = ArgumentCaptor.forClass(AccessLogRecord.class);
+        verify(accessLog).append(record.capture());
+        assertThat(record.getValue().query())
+                .isEqualTo("email=user@coderoom.com&password=***&Refresh_Token=***&code");
+    }
+
+    @Test
+    void appliesTheWebSocketVerbosityToUpgradesWhateverTheirRoute() {
+        filter.filter(websocketUpgrade(), respondWith(HttpStatus.SWITCHING_PROTOCOLS)).block(Duration.ofSeconds(1));
+        verifyNoInteractions(accessLog);
+
+        properties.setWebsocketVerbosity(AccessLogVerbosity.SUMMARY);
+        filter.filter(websocketUpgrade(), respondWith(HttpStatus.SWITCHING_PROTOCOLS)).block(Duration.ofSeconds(1));
+
+        ArgumentCaptor<AccessLogRecord> record = ArgumentCaptor.forClass(AccessLogRecord.class);
+        verify(accessLog).append(record.capture());
+        assertThat(record.getValue().status()).isEqualTo(101);
+        assertThat(record.getValue().query()).isNull();
+    }
+
+    @Test
+    void samplesSuccessesButAlwaysRecordsServerErrors() {
+        properties.setSampleRate(0);
+
+        filter.filter(exchange("code-service", "/services/be/code-service/run"), respondWith(HttpStatus.OK))
+                .block(Duration.ofSeconds(1));
+        verifyNoInteractions(accessLog);
+
+        filter.filter(exchange("code-service", "/services/be/code-service/run"), respondWith(HttpStatus.BAD_GATEWAY))
+                .block(Duration.ofSeconds(1));
+        ArgumentCaptor<AccessLogRecord> record = ArgumentCaptor.forClass(AccessLogRecord.class);
+        verify(accessLog).append(record.capture());
+        assertThat(record.getValue().status()).isEqualTo(502);
+        assertThat(record.getValue().query()).isNull();
+    }
+
+    @Test
+    void skipsRoutesWhoseVerbosityIsNone() {
+        filter.filter(exchange("stream-ws", "/services/be/stream-service/ws"), respondWith(HttpStatus.INTERNAL_SERVER_ERROR))
+                .block(Duration.ofSeconds(1));
+
+        verifyNoInteractions(accessLog);
+    }
+
+    private static MockServerWebExchange exchange(String routeId, String uri) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri)
+                .header(HttpHeaders.USER_AGENT, "load-balancer")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 41000)));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id(routeId)
+                .uri(URI.create("http://localhost:8082"))
+                .predicate(ex -> true)
+                .build());
+        return exchange;
+    }
+
+    /**
+     * An upgrade on a route whose own verbosity is full, as WebSockets share paths with plain routes.
+     */
+    private static MockServerWebExchange websocketUpgrade() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/services/be/offer-service/ws?page=2")
+                .header(HttpHeaders.UPGRADE, "websocket")
+                .header(HttpHeaders.CONNECTION, "Upgrade"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("offer-service")
+                .uri(URI.create("ws://localhost:8084"))
+                .predicate(ex -> true)
+                .build());
+        return exchange;
+    }
+
+    private static WebFilterChain respondWith(HttpStatus status) {
+        return (ServerWebExchange exchange) -> {
+            exchange.getResponse().setStatusCode(status);
+            return exchange.getResponse().setComplete();
+        };
+    }
+}
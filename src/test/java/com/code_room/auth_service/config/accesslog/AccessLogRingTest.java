@@ -0,0 +1,75 @@
+package com.code_room.auth_service.config.accesslog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogRingTest {
+
+    @Test
+    void keepsOrderAndRejectsRecordsWhenFull() {
+        AccessLogRing ring = new AccessLogRing(3);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(record(i))).isTrue();
+        }
+        assertThat(ring.offer(record(4))).isFalse();
+
+        assertThat(ring.poll().status()).isEqualTo(0);
+        assertThat(ring.offer(record(5))).isTrue();
+        assertThat(ring.size()).isEqualTo(4);
+        for (int expected : new int[]{1, 2, 3, 5}) {
+            assertThat(ring.poll().status()).isEqualTo(expected);
+        }
+        assertThat(ring.poll()).isNull();
+    }
+
+    @Test
+    void deliversEveryRecordOfConcurrentProducersExactlyOnce() throws InterruptedException {
+        AccessLogRing ring = new AccessLogRing(64);
+        int producers = 4;
+        int perProducer = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(record(offset + i))) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+
+        start.countDown();
+        Set<Integer> seen = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+            AccessLogRecord record = ring.poll();
+            if (record != null) {
+                assertThat(seen.add(record.status())).isTrue();
+            }
+        }
+        pool.shutdown();
+
+        assertThat(seen).hasSize(producers * perProducer);
+        assertThat(ring.poll()).isNull();
+    }
+
+    private static AccessLogRecord record(int id) {
+        return new AccessLogRecord(0, "GET", "/", null, null, id, -1, 0, null, null, null);
+    }
+}
@@ -0,0 +1,96 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtClaimsResolver claimsResolver;
+
+    @InjectMocks
+    private JwtAuthenticationFilter filter;
+
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    void setUp() {
+        PathPolicyProperties properties = new PathPolicyProperties();
+        PathPolicyProperties.Rule stream = new PathPolicyProperties.Rule();
+        stream.setPattern("/services/be/stream-service/ws/**");
+        stream.setPolicy(AuthPolicy.Type.ANONYMOUS);
+        PathPolicyProperties.Rule admin = new PathPolicyProperties.Rule();
+        admin.setPattern("/services/be/offer-service/admin/**");
+        admin.setPolicy(AuthPolicy.Type.ROLE);
+        admin.setRoles(Set.of("ADMIN"));
+        properties.getRules().add(stream);
+        properties.getRules().add(admin);
+        ReflectionTestUtils.setField(filter, "policyProperties", properties);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        filter.init();
+    }
+
+    @Test
+    void letsAnonymousPathsThroughWithoutResolvingAToken() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/services/be/stream-service/ws/room/1"));
+
+        filter.filter(exchange, chain).block(Duration.ofSeconds(1));
+
+        assertThat(forwarded.get()).isNotNull();
+        verifyNoInteractions(claimsResolver);
+    }
+
+    @Test
+    void requiresTheRoleOfRolePolicies() {
+        when(claimsResolver.resolve(any())).thenReturn(Jwts.claims()
+                .subject("user@coderoom.com")
+                .add(JwtService.ROLE_CLAIM, "CLIENT")
+                .build());
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/services/be/offer-service/admin/users"));
+
+        filter.filter(exchange, chain).block(Duration.ofSeconds(1));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    void forwardsTheSubjectOfBearerPolicies() {
+        when(claimsResolver.resolve(any())).thenReturn(Jwts.claims().subject("user@coderoom.com").build());
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/services/be/offer-service/offers"));
+
+        filter.filter(exchange, chain).block(Duration.ofSeconds(1));
+
+        assertThat(forwarded.get().getRequest().getHeaders().getFirst("user-id")).isEqualTo("user@coderoom.com");
+    }
+}
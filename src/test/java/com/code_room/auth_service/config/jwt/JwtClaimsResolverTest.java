@@ -0,0 +1,101 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtClaimsResolverTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private JwtPreValidator preValidator;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private RevokedTokenList revokedTokenList;
+
+    @InjectMocks
+    private JwtClaimsResolver claimsResolver;
+
+    private MockServerWebExchange exchange;
+
+    @BeforeEach
+    void setUp() {
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/services/be/offer-service/offers")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token"));
+    }
+
+    @Test
+    void verifiesTokenOncePerExchange() {
+        Claims claims = Jwts.claims().subject("user@coderoom.com").build();
+        when(jwtService.extractAllClaims("token")).thenReturn(claims);
+
+        assertThat(claimsResolver.resolve(exchange)).isSameAs(claims);
+        assertThat(claimsResolver.resolve(exchange)).isSameAs(claims);
+        assertThat((Claims) exchange.getAttribute(JwtClaimsResolver.CLAIMS_ATTRIBUTE)).isSameAs(claims);
+        verify(jwtService, times(1)).extractAllClaims("token");
+    }
+
+    @Test
+    void servesRepeatedTokenFromCache() {
+        Claims claims = Jwts.claims().subject("user@coderoom.com").build();
+        when(verifiedTokenCache.get("token")).thenReturn(claims);
+
+        assertThat(claimsResolver.resolve(exchange)).isSameAs(claims);
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    void remembersRejectedToken() {
+        when(jwtService.extractAllClaims("token")).thenThrow(new MalformedJwtException("bad token"));
+
+        assertThatThrownBy(() -> claimsResolver.resolve(exchange)).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> claimsResolver.resolve(exchange)).isInstanceOf(MalformedJwtException.class);
+        verify(jwtService, times(1)).extractAllClaims("token");
+    }
+
+    @Test
+    void returnsNullWithoutBearerToken() {
+        MockServerWebExchange anonymous = MockServerWebExchange.from(MockServerHttpRequest.get("/auth/login"));
+
+        assertThat(claimsResolver.resolve(anonymous)).isNull();
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    void rejectsRevokedTokenEvenWhenCached() {
+        Claims claims = Jwts.claims()
+                .subject("user@coderoom.com")
+                .id("jti")
+                .expiration(new Date(4102444800000L))
+                .build();
+        when(verifiedTokenCache.get("token")).thenReturn(claims);
+        when(revokedTokenList.isRevoked("jti", 4102444800000L)).thenReturn(true);
+
+        assertThatThrownBy(() -> claimsResolver.resolve(exchange)).isInstanceOf(RevokedTokenException.class);
+        assertThatThrownBy(() -> claimsResolver.resolve(exchange)).isInstanceOf(RevokedTokenException.class);
+        verify(revokedTokenList, times(1)).isRevoked("jti", 4102444800000L);
+    }
+}
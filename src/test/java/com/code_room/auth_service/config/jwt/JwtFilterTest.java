@@ -0,0 +1,89 @@
+package com.code_room.auth_service.config.jwt;
+
+import com.code_room.auth_service.domain.Enum.Role;
+import com.code_room.auth_service.domain.ports.UserService;
+import com.code_room.auth_service.infrastructure.restclient.dto.UserDto;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtFilterTest {
+
+    @Mock
+    private JwtClaimsResolver claimsResolver;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private JwtFilter jwtFilter;
+
+    private final MockServerWebExchange exchange =
+            MockServerWebExchange.from(MockServerHttpRequest.get("/auth/me"));
+
+    private final AtomicInteger chainCalls = new AtomicInteger();
+
+    private final AtomicReference<Authentication> authentication = new AtomicReference<>();
+
+    private final WebFilterChain chain = ex -> ReactiveSecurityContextHolder.getContext()
+            .map(SecurityContext::getAuthentication)
+            .doOnNext(authentication::set)
+            .then(Mono.fromRunnable(chainCalls::incrementAndGet));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtFilter, "meterRegistry", new SimpleMeterRegistry());
+        jwtFilter.init();
+    }
+
+    @Test
+    void authenticatesFromClaimsWithoutUserLookup() {
+        ReflectionTestUtils.setField(jwtFilter, "statelessEnabled", true);
+        Claims claims = Jwts.claims().subject("user@coderoom.com").issuedAt(new Date()).build();
+        UserDto user = UserDto.builder().id("42").email("user@coderoom.com").role(Role.CLIENT).build();
+        when(claimsResolver.resolve(exchange)).thenReturn(claims);
+        when(jwtService.userFromClaims(claims)).thenReturn(user);
+
+        jwtFilter.filter(exchange, chain).block();
+
+        assertThat(chainCalls).hasValue(1);
+        assertThat(authentication.get().getPrincipal()).isSameAs(user);
+        assertThat(authentication.get().getAuthorities()).extracting("authority").containsExactly("ROLE_CLIENT");
+        verify(userService, never()).findByEmail(any());
+    }
+
+    @Test
+    void continuesAnonymouslyWithoutToken() {
+        when(claimsResolver.resolve(exchange)).thenReturn(null);
+
+        jwtFilter.filter(exchange, chain).block();
+
+        assertThat(chainCalls).hasValue(1);
+        assertThat(authentication.get()).isNull();
+    }
+}
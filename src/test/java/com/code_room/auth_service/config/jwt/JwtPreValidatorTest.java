@@ -0,0 +1,91 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtPreValidatorTest {
+
+    private static final byte[] SECRET = Base64.getDecoder().decode(
+            "gKZpDd8M3vXt7XLGlbZG2dFv1F5LSK+QAcX9A4qVq2aLbEEMww6slvENxwX+9Q27FO3EtzNbdRYJ7xKAlv3dMw==");
+
+    private final JwtPreValidator preValidator = new JwtPreValidator();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(preValidator, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(preValidator, "enabled", true);
+        ReflectionTestUtils.setField(preValidator, "maxLength", 2048);
+        ReflectionTestUtils.setField(preValidator, "algorithms", Set.of("HS256", "ES256", "EdDSA"));
+        preValidator.init();
+    }
+
+    @Test
+    void letsPlausibleTokensThrough() {
+        String token = Jwts.builder()
+                .subject("user@coderoom.com")
+                .claim("profile", Map.of("exp", 1))
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET), Jwts.SIG.HS256)
+                .compact();
+
+        assertThatCode(() -> preValidator.check(token)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsStructurallyInvalidTokens() {
+        String unsigned = Jwts.builder().subject("user@coderoom.com").compact();
+
+        assertThatThrownBy(() -> preValidator.check("x".repeat(2049))).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> preValidator.check("not a token")).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> preValidator.check("a.b")).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> preValidator.check(unsigned)).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> preValidator.check(segment("[]") + "." + segment("{}") + ".c2ln"))
+                .isInstanceOf(MalformedJwtException.class);
+
+        assertThat(preValidator.rejected(JwtPreValidator.Rejection.TOO_LARGE)).isEqualTo(1);
+        assertThat(preValidator.rejected(JwtPreValidator.Rejection.MALFORMED)).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsAlgorithmsThatAreNeverIssued() {
+        String hs512 = Jwts.builder()
+                .subject("user@coderoom.com")
+                .signWith(Keys.hmacShaKeyFor(SECRET), Jwts.SIG.HS512)
+                .compact();
+        String spoofed = segment("{\"typ\":\"JWT\",\"x\":{\"alg\":\"HS256\"}}") + "." + segment("{}") + ".c2ln";
+
+        assertThatThrownBy(() -> preValidator.check(hs512)).isInstanceOf(UnsupportedJwtException.class);
+        assertThatThrownBy(() -> preValidator.check(spoofed)).isInstanceOf(UnsupportedJwtException.class);
+        assertThat(preValidator.rejected(JwtPreValidator.Rejection.ALGORITHM)).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsExpiredTokensWithoutVerifyingThem() {
+        String token = segment("{\"alg\":\"HS256\"}") + "."
+                + segment("{\"sub\":\"user@coderoom.com\", \"exp\" : 1000}") + ".c2ln";
+
+        assertThatThrownBy(() -> preValidator.check(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(preValidator.rejected(JwtPreValidator.Rejection.EXPIRED)).isEqualTo(1);
+    }
+
+    private static String segment(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,60 @@
+package com.code_room.auth_service.config.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PathPolicyMatcherTest {
+
+    private final PathPolicyMatcher matcher = PathPolicyMatcher.compile(AuthPolicy.BEARER, List.of(
+            rule("/services/be/stream-service/ws/**", AuthPolicy.Type.ANONYMOUS),
+            rule("/services/be/*/health", AuthPolicy.Type.ANONYMOUS),
+            rule("/services/be/offer-service/admin/**", AuthPolicy.Type.ROLE, "ADMIN"),
+            rule("/services/be/offer-service/admin/reports", AuthPolicy.Type.ROLE, "ADMIN", "AUDITOR"),
+            rule("/services/be/offer-service/*/public", AuthPolicy.Type.ANONYMOUS)));
+
+    @Test
+    void matchesLiteralWildcardAndRemainderPatterns() {
+        assertThat(matcher.match("/services/be/stream-service/ws")).isEqualTo(AuthPolicy.ANONYMOUS);
+        assertThat(matcher.match("/services/be/stream-service/ws/room/42")).isEqualTo(AuthPolicy.ANONYMOUS);
+        assertThat(matcher.match("/services/be/code-service/health")).isEqualTo(AuthPolicy.ANONYMOUS);
+        assertThat(matcher.match("/services/be/code-service/health/deep")).isEqualTo(AuthPolicy.BEARER);
+        assertThat(matcher.match("/services/be/stream-service/wsx")).isEqualTo(AuthPolicy.BEARER);
+        assertThat(matcher.match("/services/be/offer-service/offers")).isEqualTo(AuthPolicy.BEARER);
+        assertThat(matcher.match("/")).isEqualTo(AuthPolicy.BEARER);
+    }
+
+    @Test
+    void prefersTheMostSpecificPattern() {
+        assertThat(matcher.match("/services/be/offer-service/admin/users").roles()).containsExactly("ADMIN");
+        assertThat(matcher.match("/services/be/offer-service/admin/reports").roles())
+                .containsExactlyInAnyOrder("ADMIN", "AUDITOR");
+        assertThat(matcher.match("/services/be/offer-service/admin/public").roles()).containsExactly("ADMIN");
+        assertThat(matcher.match("/services/be/offer-service/42/public")).isEqualTo(AuthPolicy.ANONYMOUS);
+    }
+
+    @Test
+    void rejectsInvalidPatterns() {
+        assertThatThrownBy(() -> PathPolicyMatcher.compile(AuthPolicy.BEARER,
+                List.of(rule("services/**", AuthPolicy.Type.ANONYMOUS))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PathPolicyMatcher.compile(AuthPolicy.BEARER,
+                List.of(rule("/services/**/ws", AuthPolicy.Type.ANONYMOUS))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PathPolicyMatcher.compile(AuthPolicy.BEARER,
+                List.of(rule("/admin/**", AuthPolicy.Type.ROLE))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PathPolicyProperties.Rule rule(String pattern, AuthPolicy.Type policy, String... roles) {
+        PathPolicyProperties.Rule rule = new PathPolicyProperties.Rule();
+        rule.setPattern(pattern);
+        rule.setPolicy(policy);
+        rule.setRoles(Set.of(roles));
+        return rule;
+    }
+}
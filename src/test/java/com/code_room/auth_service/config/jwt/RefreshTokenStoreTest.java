@@ -0,0 +1,155 @@
+package com.code_room.auth_service.config.jwt;
+
+import com.code_room.auth_service.infrastructure.persistence.JdbcRefreshTokenRepository;
+import com.code_room.auth_service.infrastructure.persistence.RefreshTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class RefreshTokenStoreTest {
+
+    private static final long IN_ONE_HOUR = System.currentTimeMillis() + Duration.ofHours(1).toMillis();
+
+    private static final String SUBJECT = "user@coderoom.com";
+
+    private static final Date AFTER_START = new Date(System.currentTimeMillis() + Duration.ofMinutes(1).toMillis());
+
+    @Test
+    void rotatesEachTokenOnceAndRevokesFamilyOnReuse() {
+        RefreshTokenStore store = store(null);
+        RefreshTokenStore.TokenFamily family = store.newFamily(SUBJECT);
+        Claims first = claims(store.issue(family, IN_ONE_HOUR), family.getId(), new Date());
+
+        RefreshTokenStore.Rotation rotation = store.rotate(first).block();
+        assertThat(rotation.outcome()).isEqualTo(RefreshTokenStore.Outcome.ROTATED);
+        Claims second = claims(store.issue(rotation.family(), IN_ONE_HOUR), family.getId(), new Date());
+
+        assertThat(outcome(store, first)).isEqualTo(RefreshTokenStore.Outcome.REUSED);
+        assertThat(outcome(store, second)).isEqualTo(RefreshTokenStore.Outcome.REVOKED);
+        assertThat(outcome(store, claims("unknown", family.getId(), AFTER_START)))
+                .isEqualTo(RefreshTokenStore.Outcome.UNKNOWN);
+    }
+
+    @Test
+    void toleratesDuplicatesWithinTheReuseGracePeriod() {
+        RefreshTokenStore store = store(null);
+        ReflectionTestUtils.setField(store, "reuseGrace", Duration.ofMinutes(1));
+        RefreshTokenStore.TokenFamily family = store.newFamily(SUBJECT);
+        Claims first = claims(store.issue(family, IN_ONE_HOUR), family.getId(), new Date());
+
+        assertThat(outcome(store, first)).isEqualTo(RefreshTokenStore.Outcome.ROTATED);
+        RefreshTokenStore.Rotation duplicate = store.rotate(first).block();
+
+        assertThat(duplicate.outcome()).isEqualTo(RefreshTokenStore.Outcome.DUPLICATE);
+        assertThat(duplicate.family().isRevoked()).isFalse();
+    }
+
+    @Test
+    void forgetsTokensSignedBeforeARestartByDefault() {
+        Date beforeRestart = new Date(System.currentTimeMillis() - Duration.ofMinutes(1).toMillis());
+
+        assertThat(outcome(store(null), claims(UUID.randomUUID().toString(), "family", beforeRestart)))
+                .isEqualTo(RefreshTokenStore.Outcome.UNKNOWN);
+    }
+
+    @Test
+    void adoptsTokensSignedBeforeARestartOncePerFamilyWhenEnabled() {
+        Date beforeRestart = new Date(System.currentTimeMillis() - Duration.ofMinutes(1).toMillis());
+        RefreshTokenStore restarted = store(null);
+        ReflectionTestUtils.setField(restarted, "adoptAfterRestart", true);
+        Claims current = claims(UUID.randomUUID().toString(), "family", beforeRestart);
+        Claims staleCopy = claims(UUID.randomUUID().toString(), "family", beforeRestart);
+
+        RefreshTokenStore.Rotation adopted = restarted.rotate(current).block();
+        assertThat(adopted.outcome()).isEqualTo(RefreshTokenStore.Outcome.ROTATED);
+        assertThat(adopted.family().getId()).isEqualTo("family");
+        assertThat(adopted.family().getSubject()).isEqualTo(SUBJECT);
+
+        assertThat(outcome(restarted, staleCopy)).isEqualTo(RefreshTokenStore.Outcome.REUSED);
+        assertThat(adopted.family().isRevoked()).isTrue();
+        assertThat(outcome(restarted, claims(UUID.randomUUID().toString(), "other", AFTER_START)))
+                .isEqualTo(RefreshTokenStore.Outcome.UNKNOWN);
+    }
+
+    @Test
+    void acceptsTokensWithoutJtiOnlyOnce() {
+        RefreshTokenStore store = store(null);
+        Claims legacy = Jwts.claims().subject(SUBJECT).expiration(new Date(IN_ONE_HOUR)).build();
+
+        RefreshTokenStore.Rotation first = store.rotateLegacy("digest", legacy).block();
+        assertThat(first.outcome()).isEqualTo(RefreshTokenStore.Outcome.ROTATED);
+        assertThat(first.family().getSubject()).isEqualTo(SUBJECT);
+
+        assertThat(store.rotateLegacy("digest", legacy).block().outcome()).isEqualTo(RefreshTokenStore.Outcome.REUSED);
+        assertThat(first.family().isRevoked()).isTrue();
+    }
+
+    @Test
+    void sharesRotationStateBetweenInstancesThroughRepository() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:refresh-tokens;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        DatabasePopulatorUtils.execute(
+                new ResourceDatabasePopulator(new ClassPathResource("db/refresh-token-schema.sql")), dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        RefreshTokenRepository repository = new JdbcRefreshTokenRepository(jdbcTemplate);
+        RefreshTokenStore first = store(repository);
+        RefreshTokenStore second = store(repository);
+
+        RefreshTokenStore.TokenFamily family = first.newFamily(SUBJECT);
+        Claims issued = claims(first.issue(family, IN_ONE_HOUR), family.getId(), new Date());
+        Claims next = claims(first.issue(family, IN_ONE_HOUR), family.getId(), new Date());
+        await().until(() -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token", Integer.class) == 2);
+
+        assertThat(outcome(second, issued)).isEqualTo(RefreshTokenStore.Outcome.ROTATED);
+        assertThat(outcome(first, issued)).isEqualTo(RefreshTokenStore.Outcome.REUSED);
+        await().until(() -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_token WHERE revoked = TRUE", Integer.class) == 2);
+        assertThat(outcome(second, next)).isEqualTo(RefreshTokenStore.Outcome.REVOKED);
+
+        Claims legacy = Jwts.claims().subject(SUBJECT).expiration(new Date(IN_ONE_HOUR)).build();
+        assertThat(first.rotateLegacy("digest", legacy).block().outcome()).isEqualTo(RefreshTokenStore.Outcome.ROTATED);
+        assertThat(second.rotateLegacy("digest", legacy).block().outcome()).isEqualTo(RefreshTokenStore.Outcome.REUSED);
+        first.shutdown();
+        second.shutdown();
+    }
+
+    private static RefreshTokenStore.Outcome outcome(RefreshTokenStore store, Claims claims) {
+        return store.rotate(claims).block().outcome();
+    }
+
+    private static Claims claims(String jti, String familyId, Date issuedAt) {
+        return Jwts.claims()
+                .id(jti)
+                .subject(SUBJECT)
+                .add(JwtService.FAMILY_CLAIM, familyId)
+                .issuedAt(issuedAt)
+                .expiration(new Date(IN_ONE_HOUR))
+                .build();
+    }
+
+    private static RefreshTokenStore store(RefreshTokenRepository repository) {
+        RefreshTokenStore store = new RefreshTokenStore();
+        ReflectionTestUtils.setField(store, "repository", repository);
+        ReflectionTestUtils.setField(store, "blockingScheduler", Schedulers.boundedElastic());
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "cleanupInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(store, "reuseGrace", Duration.ZERO);
+        store.init();
+        return store;
+    }
+}
@@ -0,0 +1,86 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenListTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private RevokedTokenList revokedTokens;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokens = new RevokedTokenList();
+        ReflectionTestUtils.setField(revokedTokens, "expirationMillis", HOUR);
+        ReflectionTestUtils.setField(revokedTokens, "bucketWidth", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(revokedTokens, "expectedPerBucket", 1000);
+        ReflectionTestUtils.setField(revokedTokens, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(revokedTokens, "meterRegistry", new SimpleMeterRegistry());
+        revokedTokens.init();
+    }
+
+    @Test
+    void reportsOnlyRevokedTokens() {
+        long expiresAt = System.currentTimeMillis() + HOUR / 2;
+        for (int i = 0; i < 1000; i++) {
+            revokedTokens.revoke("revoked-" + i, expiresAt);
+        }
+
+        assertThat(revokedTokens.isRevoked("revoked-42", expiresAt)).isTrue();
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(revokedTokens.isRevoked(UUID.randomUUID().toString(), expiresAt)).isFalse();
+        }
+        assertThat(revokedTokens.isRevoked("revoked-42", expiresAt + HOUR / 4)).isFalse();
+    }
+
+    @Test
+    void ignoresExpiredTokensAndKeepsTokensBeyondHorizon() {
+        revokedTokens.revoke("expired", System.currentTimeMillis() - 1);
+        assertThat(revokedTokens.isRevoked("expired", System.currentTimeMillis() - 1)).isFalse();
+
+        long longLived = System.currentTimeMillis() + 2 * HOUR;
+        revokedTokens.revoke("long-lived", longLived);
+        assertThat(revokedTokens.isRevoked("long-lived", longLived)).isTrue();
+    }
+
+    @Test
+    void coversTheWholeLifetimeWhenItIsNotAMultipleOfTheBucketWidth() {
+        ReflectionTestUtils.setField(revokedTokens, "expirationMillis", HOUR + Duration.ofMinutes(3).toMillis());
+        revokedTokens.init();
+        long expiresAt = System.currentTimeMillis() + HOUR + Duration.ofMinutes(2).toMillis();
+
+        revokedTokens.revoke("revoked", expiresAt);
+
+        assertThat(revokedTokens.isRevoked("revoked", expiresAt)).isTrue();
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(revokedTokens, "beyondHorizon")).isEmpty();
+    }
+
+    @Test
+    void returnsToTheEmptyFastPathOnceRevokedTokensExpire() {
+        long now = System.currentTimeMillis();
+        revokedTokens.revoke("short-lived", now + Duration.ofMinutes(1).toMillis());
+        revokedTokens.revoke("long-lived", now + 3 * HOUR);
+        assertThat(size()).isEqualTo(2);
+
+        // pretend a bucket width passed: the sweep drops everything that expired by then
+        long later = now + 4 * HOUR;
+        ReflectionTestUtils.setField(revokedTokens, "nextSweepMillis", 0L);
+        ReflectionTestUtils.invokeMethod(revokedTokens, "sweep", later);
+
+        assertThat(size()).isZero();
+    }
+
+    private int size() {
+        return ((AtomicInteger) ReflectionTestUtils.getField(revokedTokens, "size")).get();
+    }
+}
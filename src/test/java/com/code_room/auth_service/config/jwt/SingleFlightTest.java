@@ -0,0 +1,55 @@
+package com.code_room.auth_service.config.jwt;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void sharesOneComputationBetweenConcurrentCallers() {
+        AtomicInteger computations = new AtomicInteger();
+        Sinks.One<String> result = Sinks.one();
+
+        Mono<String> first = singleFlight.execute("token", () -> {
+            computations.incrementAndGet();
+            return result.asMono();
+        });
+        Mono<String> second = singleFlight.execute("token", () -> {
+            computations.incrementAndGet();
+            return Mono.just("other");
+        });
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> result.tryEmitValue("tokens"))
+                .expectNextMatches(both -> both.getT1().equals("tokens") && both.getT2().equals("tokens"))
+                .verifyComplete();
+        assertThat(computations).hasValue(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void sharesErrorsAndStartsOverAfterCompletion() {
+        Sinks.One<String> result = Sinks.one();
+        Mono<String> first = singleFlight.execute("token", result::asMono);
+        Mono<String> second = singleFlight.execute("token", () -> Mono.just("unused"));
+
+        StepVerifier.create(Mono.zipDelayError(first.onErrorReturn("failed"), second.onErrorReturn("failed")))
+                .then(() -> result.tryEmitError(new IllegalStateException("boom")))
+                .expectNextMatches(both -> both.getT1().equals("failed") && both.getT2().equals("failed"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        StepVerifier.create(singleFlight.execute("token", () -> Mono.just("fresh")))
+                .expectNext("fresh")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,64 @@
+package com.code_room.auth_service.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+    }
+
+    @Test
+    void servesVerifiedTokenUntilItsExpiration() {
+        Claims claims = claimsExpiringIn(60_000);
+        cache.put("header.payload.signature", claims);
+
+        assertThat(cache.get("header.payload.signature")).isSameAs(claims);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void missesTokenWithSameSignatureButDifferentContent() {
+        cache.put("header.payload.signature", claimsExpiringIn(60_000));
+
+        assertThat(cache.get("header.forged.signature")).isNull();
+    }
+
+    @Test
+    void doesNotServeExpiredToken() {
+        cache.put("header.payload.signature", claimsExpiringIn(-1_000));
+
+        assertThat(cache.get("header.payload.signature")).isNull();
+    }
+
+    @Test
+    void forgetsInvalidatedToken() {
+        cache.put("header.payload.signature", claimsExpiringIn(60_000));
+        cache.invalidate("header.payload.signature");
+
+        assertThat(cache.get("header.payload.signature")).isNull();
+    }
+
+    private static Claims claimsExpiringIn(long millis) {
+        return Jwts.claims()
+                .subject("user@coderoom.com")
+                .expiration(new Date(System.currentTimeMillis() + millis))
+                .build();
+    }
+}
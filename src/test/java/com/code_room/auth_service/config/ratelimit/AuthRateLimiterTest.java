@@ -0,0 +1,66 @@
+package com.code_room.auth_service.config.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthRateLimiterTest {
+
+    private final AuthRateLimiter rateLimiter = new AuthRateLimiter();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Route login = new RateLimitProperties.Route();
+        login.setClient(limit(3));
+        login.setAccount(limit(2));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRoutes().put("login", login);
+        ReflectionTestUtils.setField(rateLimiter, "properties", properties);
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(rateLimiter, "init");
+    }
+
+    @Test
+    void limitsEachAccountRegardlessOfLetterCase() {
+        assertThat(rateLimiter.check("login", from("10.0.0.1"), "user@coderoom.com")).isNull();
+        assertThat(rateLimiter.check("login", from("10.0.0.2"), " User@CodeRoom.com")).isNull();
+
+        Duration retryAfter = rateLimiter.check("login", from("10.0.0.3"), "user@coderoom.com");
+
+        assertThat(retryAfter).isPositive();
+        assertThat(rateLimiter.check("login", from("10.0.0.3"), "other@coderoom.com")).isNull();
+        assertThat(meterRegistry.get("auth.rate-limit.rejected").tag("key", "account").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void limitsEachClientAcrossAccounts() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.check("login", from("10.0.0.1"), "user" + i + "@coderoom.com")).isNull();
+        }
+
+        assertThat(rateLimiter.check("login", from("10.0.0.1"), "user9@coderoom.com")).isPositive();
+        assertThat(rateLimiter.check("register", from("10.0.0.1"), "user9@coderoom.com")).isNull();
+    }
+
+    private static MockServerHttpRequest from(String address) {
+        return MockServerHttpRequest.post("/auth/login")
+                .remoteAddress(new InetSocketAddress(address, 40000))
+                .build();
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setPeriod(Duration.ofMinutes(1));
+        return limit;
+    }
+}
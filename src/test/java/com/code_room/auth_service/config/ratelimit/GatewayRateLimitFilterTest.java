@@ -0,0 +1,112 @@
+package com.code_room.auth_service.config.ratelimit;
+
+import com.code_room.auth_service.config.jwt.JwtClaimsResolver;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayRateLimitFilterTest {
+
+    private final GatewayRateLimitFilter filter = new GatewayRateLimitFilter();
+
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.GatewayRoute offers = new RateLimitProperties.GatewayRoute();
+        offers.setRoute(limit(3));
+        offers.setSubject(limit(2));
+        properties.getGateway().getRoutes().put("offer-service", offers);
+
+        ReflectionTestUtils.setField(store, "properties", properties);
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        ReflectionTestUtils.setField(filter, "store", store);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Test
+    void limitsEachSubjectAndThenTheRoute() {
+        assertThat(status(request("offer-service", "alice@coderoom.com"))).isNull();
+        assertThat(status(request("offer-service", "alice@coderoom.com"))).isNull();
+
+        MockServerWebExchange limited = request("offer-service", "alice@coderoom.com");
+        assertThat(status(limited)).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(limited.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("30");
+
+        assertThat(status(request("offer-service", "bob@coderoom.com"))).isNull();
+        assertThat(status(request("offer-service", "carol@coderoom.com"))).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(forwarded).hasValue(3);
+    }
+
+    @Test
+    void givesTheSubjectTokenBackWhenTheRouteRejects() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(status(request("offer-service", "user-" + i + "@coderoom.com"))).isNull();
+        }
+        for (int i = 0; i < 3; i++) {
+            assertThat(status(request("offer-service", "bob@coderoom.com"))).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        }
+
+        assertThat(store.tryAcquire("gateway.offer-service.subject", limit(2), "bob@coderoom.com")
+                .block()).isZero();
+        assertThat(store.tryAcquire("gateway.offer-service.subject", limit(2), "bob@coderoom.com")
+                .block()).isZero();
+    }
+
+    @Test
+    void leavesRoutesWithoutLimitsAlone() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(status(request("user-service", "alice@coderoom.com"))).isNull();
+        }
+        assertThat(forwarded).hasValue(100);
+    }
+
+    private HttpStatus status(MockServerWebExchange exchange) {
+        filter.filter(exchange, chain).block(Duration.ofSeconds(1));
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+
+    private static MockServerWebExchange request(String routeId, String subject) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/services/be/" + routeId + "/items")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 40000)));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id(routeId)
+                .uri("http://localhost:8080")
+                .predicate(e -> true)
+                .build());
+        exchange.getAttributes().put(JwtClaimsResolver.CLAIMS_ATTRIBUTE, Jwts.claims().subject(subject).build());
+        return exchange;
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setPeriod(Duration.ofMinutes(1));
+        return limit;
+    }
+}
@@ -0,0 +1,90 @@
+package com.code_room.auth_service.config.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketSketchTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsABurstOfCapacityAndThenRefillsOverThePeriod() {
+        TokenBucketSketch sketch = new TokenBucketSketch(5, Duration.ofSeconds(10), 4, 1024);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(sketch.tryAcquire("10.0.0.1", now)).isZero();
+        }
+        long wait = sketch.tryAcquire("10.0.0.1", now);
+
+        assertThat(wait).isEqualTo(2 * SECOND);
+        assertThat(sketch.tryAcquire("10.0.0.1", now + wait - 1)).isPositive();
+        assertThat(sketch.tryAcquire("10.0.0.1", now + wait)).isZero();
+    }
+
+    @Test
+    void releaseGivesBackOneTokenAndNeverMoreThanCapacity() {
+        TokenBucketSketch sketch = new TokenBucketSketch(2, Duration.ofSeconds(10), 4, 1024);
+        long now = System.nanoTime();
+        sketch.release("10.0.0.1", now);
+
+        assertThat(sketch.tryAcquire("10.0.0.1", now)).isZero();
+        assertThat(sketch.tryAcquire("10.0.0.1", now)).isZero();
+        assertThat(sketch.tryAcquire("10.0.0.1", now)).isPositive();
+
+        sketch.release("10.0.0.1", now);
+        assertThat(sketch.tryAcquire("10.0.0.1", now)).isZero();
+        assertThat(sketch.tryAcquire("10.0.0.1", now)).isPositive();
+    }
+
+    @Test
+    void keepsKeysApartInATinySketch() {
+        TokenBucketSketch sketch = new TokenBucketSketch(1, Duration.ofMinutes(1), 4, 64);
+        long now = System.nanoTime();
+        assertThat(sketch.tryAcquire("attacker@coderoom.com", now)).isZero();
+        assertThat(sketch.tryAcquire("attacker@coderoom.com", now)).isPositive();
+
+        int limited = 0;
+        for (int i = 0; i < 20; i++) {
+            if (sketch.tryAcquire("user" + i + "@coderoom.com", now) > 0) {
+                limited++;
+            }
+        }
+        assertThat(limited).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void neverGrantsMoreThanCapacityUnderContention() throws InterruptedException {
+        TokenBucketSketch sketch = new TokenBucketSketch(100, Duration.ofHours(1), 4, 1024);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (sketch.tryAcquire("10.0.0.1") == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(granted.get()).isEqualTo(100);
+    }
+}
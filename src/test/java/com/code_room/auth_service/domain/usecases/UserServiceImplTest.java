@@ -0,0 +1,163 @@
+package com.code_room.auth_service.domain.usecases;
+
+import com.code_room.auth_service.domain.Enum.Role;
+import com.code_room.auth_service.domain.ports.SendEmailService;
+import com.code_room.auth_service.infrastructure.controller.dto.LoginDto;
+import com.code_room.auth_service.infrastructure.restclient.UserApiService;
+import com.code_room.auth_service.infrastructure.restclient.config.UserClientConfig;
+import com.code_room.auth_service.infrastructure.restclient.config.UserClientProperties;
+import com.code_room.auth_service.infrastructure.restclient.dto.UserDto;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTest {
+
+    private final MockWebServer userService = new MockWebServer();
+
+    private ConnectionProvider connectionProvider;
+
+    private UserServiceImpl userServiceImpl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        userService.start();
+        UserClientProperties properties = new UserClientProperties();
+        properties.setUrl(userService.url("/services/be/user-service/").toString());
+        UserClientConfig config = new UserClientConfig();
+        connectionProvider = config.userConnectionProvider(properties);
+        UserApiService api = UserClientConfig.getUserApiService(
+                config.userWebClient(WebClient.builder(), properties, connectionProvider, new SimpleMeterRegistry()),
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults());
+
+        userServiceImpl = new UserServiceImpl();
+        userServiceImpl.userApiService = api;
+        ReflectionTestUtils.setField(userServiceImpl, "sendEmailService", mock(SendEmailService.class));
+
+        UserProfileCache cache = new UserProfileCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        ReflectionTestUtils.setField(userServiceImpl, "userProfileCache", cache);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionProvider.dispose();
+        userService.shutdown();
+    }
+
+    @Test
+    void checksCredentialsAgainstUserService() throws InterruptedException {
+        userService.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"id\":\"42\",\"email\":\"user@coderoom.com\",\"role\":\"CLIENT\"}"));
+        LoginDto login = new LoginDto();
+        login.setEmail("user@coderoom.com");
+        login.setPassword("secret");
+
+        StepVerifier.create(userServiceImpl.checkPassword(login))
+                .expectNextMatches(user -> user.getId().equals("42") && user.getRole() == Role.CLIENT)
+                .verifyComplete();
+
+        RecordedRequest request = userService.takeRequest();
+        assertThat(request.getPath()).isEqualTo("/services/be/user-service/users/user-check");
+    }
+
+    @Test
+    void mapsErrorResponseToRuntimeException() {
+        userService.enqueue(new MockResponse().setResponseCode(404).setBody("user not found"));
+
+        StepVerifier.create(userServiceImpl.findByEmail("missing@coderoom.com"))
+                .expectErrorMatches(e -> e instanceof RuntimeException
+                        && e.getMessage().equals("Error calling external API: user not found"))
+                .verify();
+    }
+
+    @Test
+    void registersUserAndSendsVerificationEmail() {
+        userService.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"verification code\":\"123456\"}"));
+        UserDto user = UserDto.builder().email("new@coderoom.com").name("Ana").build();
+
+        StepVerifier.create(userServiceImpl.registerUser(user, "secret", null))
+                .verifyComplete();
+    }
+
+    @Test
+    void refusesRegistrationBeforeCreatingTheUserWhenTheOutboxIsFull() {
+        SendEmailService sendEmailService = mock(SendEmailService.class);
+        when(sendEmailService.isOutboxFull()).thenReturn(true);
+        ReflectionTestUtils.setField(userServiceImpl, "sendEmailService", sendEmailService);
+        UserDto user = UserDto.builder().email("new@coderoom.com").name("Ana").build();
+
+        StepVerifier.create(userServiceImpl.registerUser(user, "secret", null))
+                .expectError(RejectedExecutionException.class)
+                .verify();
+        assertThat(userService.getRequestCount()).isZero();
+    }
+
+    @Test
+    void coalescesConcurrentLookupsAndCachesTheProfile() {
+        userService.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"id\":\"42\",\"email\":\"user@coderoom.com\"}")
+                .setHeadersDelay(200, TimeUnit.MILLISECONDS));
+
+        StepVerifier.create(Mono.zip(
+                        userServiceImpl.findByEmail("user@coderoom.com"),
+                        userServiceImpl.findByEmail(" User@CodeRoom.com")))
+                .expectNextMatches(users -> users.getT1().getId().equals("42") && users.getT2().getId().equals("42"))
+                .verifyComplete();
+        StepVerifier.create(userServiceImpl.findByEmail("user@coderoom.com"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(userService.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void registeringUserInvalidatesCachedProfile() {
+        userService.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"id\":\"42\",\"email\":\"new@coderoom.com\"}"));
+        userService.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"verification code\":\"123456\"}"));
+        userService.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"id\":\"43\",\"email\":\"new@coderoom.com\"}"));
+
+        StepVerifier.create(userServiceImpl.findByEmail("new@coderoom.com")).expectNextCount(1).verifyComplete();
+        UserDto user = UserDto.builder().email("new@coderoom.com").name("Ana").build();
+        StepVerifier.create(userServiceImpl.registerUser(user, "secret", null)).verifyComplete();
+
+        StepVerifier.create(userServiceImpl.findByEmail("new@coderoom.com"))
+                .expectNextMatches(found -> found.getId().equals("43"))
+                .verifyComplete();
+        assertThat(userService.getRequestCount()).isEqualTo(3);
+    }
+}
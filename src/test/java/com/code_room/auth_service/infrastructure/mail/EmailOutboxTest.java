@@ -0,0 +1,154 @@
+package com.code_room.auth_service.infrastructure.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxTest {
+
+    private static final byte[] HTML = "<p>Hi</p>".getBytes(StandardCharsets.UTF_8);
+
+    @RegisterExtension
+    static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private Scheduler scheduler;
+
+    private JavaMailSenderImpl mailSender;
+
+    private EmailOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Schedulers.newBoundedElastic(4, 100, "outbox-test");
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (outbox != null) {
+            outbox.shutdown();
+        }
+        scheduler.dispose();
+    }
+
+    @Test
+    void deliversQueuedEmailsInTheBackground() {
+        EmailOutbox outbox = outbox(mailSender, 100);
+
+        for (int i = 0; i < 25; i++) {
+            outbox.enqueue(OutboundEmail.of("noreply@coderoom.com", "user" + i + "@coderoom.com", "Welcome", HTML));
+        }
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> smtp.getReceivedMessages().length == 25);
+        // the counter is incremented after the server has accepted the message
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.counter("auth.mail.outbox.sent").count() == 25);
+        assertThat(outbox.size()).isZero();
+    }
+
+    @Test
+    void retriesFailedDelivery() {
+        JavaMailSenderImpl flakySender = spy(mailSender);
+        // nothing listens on port 1, so the first connection is refused
+        doReturn(1).doCallRealMethod().when(flakySender).getPort();
+        EmailOutbox outbox = outbox(flakySender, 100);
+
+        outbox.enqueue(OutboundEmail.of("noreply@coderoom.com", "user@coderoom.com", "Welcome", HTML));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> smtp.getReceivedMessages().length == 1);
+        assertThat(meterRegistry.counter("auth.mail.outbox.retried").count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsOneConnectionOpenAcrossBatches() {
+        EmailOutbox outbox = outbox(mailSender, 100);
+        ReflectionTestUtils.setField(outbox, "workers", 1);
+
+        for (int i = 0; i < 25; i++) {
+            outbox.enqueue(OutboundEmail.of("noreply@coderoom.com", "user" + i + "@coderoom.com", "Welcome", HTML));
+        }
+        await().atMost(Duration.ofSeconds(10)).until(() -> smtp.getReceivedMessages().length == 25);
+        outbox.enqueue(OutboundEmail.of("noreply@coderoom.com", "late@coderoom.com", "Welcome", HTML));
+        await().atMost(Duration.ofSeconds(10)).until(() -> smtp.getReceivedMessages().length == 26);
+
+        assertThat(meterRegistry.counter("auth.mail.outbox.connections").count()).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectsAfterTheServerDroppedTheConnection() throws MessagingException {
+        EmailOutbox outbox = outbox(mailSender, 100);
+        outbox.enqueue(OutboundEmail.of("noreply@coderoom.com", "first@coderoom.com", "Welcome", HTML));
+        await().atMost(Duration.ofSeconds(10)).until(() -> smtp.getReceivedMessages().length == 1);
+
+        smtp.reset();
+        outbox.enqueue(OutboundEmail.of("noreply@coderoom.com", "second@coderoom.com", "Welcome", HTML));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> smtp.getReceivedMessages().length == 1);
+        assertThat(smtp.getReceivedMessages()[0].getAllRecipients()[0].toString()).isEqualTo("second@coderoom.com");
+        assertThat(meterRegistry.counter("auth.mail.outbox.connections").count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsEmailsWhenFull() {
+        EmailOutbox outbox = outbox(mailSender, 1);
+        ReflectionTestUtils.setField(outbox, "workers", 0);
+
+        outbox.enqueue(OutboundEmail.of("noreply@coderoom.com", "first@coderoom.com", "Welcome", HTML));
+
+        assertThatThrownBy(() -> outbox.enqueue(
+                OutboundEmail.of("noreply@coderoom.com", "second@coderoom.com", "Welcome", HTML)))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void defersEmailsThatMustNotBeLostWhenFull() {
+        EmailOutbox outbox = outbox(mailSender, 1);
+        ReflectionTestUtils.setField(outbox, "workers", 0);
+        outbox.enqueue(OutboundEmail.of("noreply@coderoom.com", "first@coderoom.com", "Welcome", HTML));
+
+        outbox.enqueueOrDefer(OutboundEmail.of("noreply@coderoom.com", "second@coderoom.com", "Welcome", HTML));
+        assertThat(outbox.isFull()).isTrue();
+        ReflectionTestUtils.setField(outbox, "workers", 1);
+        ReflectionTestUtils.invokeMethod(outbox, "signalWorkers");
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> smtp.getReceivedMessages().length == 2);
+        assertThat(meterRegistry.counter("auth.mail.outbox.deferred").count()).isEqualTo(1);
+    }
+
+    private EmailOutbox outbox(JavaMailSenderImpl sender, int capacity) {
+        outbox = new EmailOutbox();
+        ReflectionTestUtils.setField(outbox, "mailSender", sender);
+        ReflectionTestUtils.setField(outbox, "blockingScheduler", scheduler);
+        ReflectionTestUtils.setField(outbox, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(outbox, "capacity", capacity);
+        ReflectionTestUtils.setField(outbox, "workers", 2);
+        ReflectionTestUtils.setField(outbox, "batchSize", 10);
+        ReflectionTestUtils.setField(outbox, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outbox, "initialBackoff", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(outbox, "idleTimeout", Duration.ofSeconds(30));
+        outbox.init();
+        return outbox;
+    }
+}
@@ -0,0 +1,47 @@
+package com.code_room.auth_service.infrastructure.mail;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplatesTest {
+
+    private EmailTemplates templates;
+
+    @BeforeEach
+    void setUp() {
+        templates = new EmailTemplates();
+        ReflectionTestUtils.setField(templates, "defaultLocale", Locale.forLanguageTag("es"));
+        templates.init();
+    }
+
+    @Test
+    void rendersSlotsWithHtmlEscaping() {
+        EmailTemplate template = EmailTemplate.compile("Subject: Hi\n\n<h2>Hola, {{name}}!</h2><b>{{ code }}</b>");
+
+        String html = new String(template.render(Map.of("name", "<Ana & \"Bob\"> 👋", "code", "123456")),
+                StandardCharsets.UTF_8);
+
+        assertThat(template.getSubject()).isEqualTo("Hi");
+        assertThat(html).isEqualTo("<h2>Hola, &lt;Ana &amp; &quot;Bob&quot;&gt; 👋!</h2><b>123456</b>");
+    }
+
+    @Test
+    void selectsLocalizedVariantAndFallsBackToDefault() {
+        assertThat(templates.get("registration-success", Locale.US).getSubject()).isEqualTo("🎉 Welcome to Code Room!");
+        assertThat(templates.get("registration-success", Locale.FRENCH).getSubject()).isEqualTo("🎉 ¡Bienvenido a Code Room!");
+        assertThat(templates.get("registration-success", null).getSubject()).isEqualTo("🎉 ¡Bienvenido a Code Room!");
+    }
+
+    @Test
+    void rejectsUnknownTemplate() {
+        assertThatThrownBy(() -> templates.get("missing", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
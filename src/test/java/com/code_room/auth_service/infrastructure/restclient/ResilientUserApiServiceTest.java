@@ -0,0 +1,135 @@
+package com.code_room.auth_service.infrastructure.restclient;
+
+import com.code_room.auth_service.domain.Exception.ServiceUnavailableException;
+import com.code_room.auth_service.infrastructure.restclient.config.UserClientConfig;
+import com.code_room.auth_service.infrastructure.restclient.config.UserClientProperties;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResilientUserApiServiceTest {
+
+    private final MockWebServer userService = new MockWebServer();
+
+    private ConnectionProvider connectionProvider;
+
+    private ResilientUserApiService api;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        userService.start();
+
+        UserClientProperties properties = new UserClientProperties();
+        properties.setUrl(userService.url("/").toString());
+        properties.getTimeout().setResponse(Duration.ofMillis(200));
+        UserClientConfig config = new UserClientConfig();
+        connectionProvider = config.userConnectionProvider(properties);
+
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMillis(500))
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .recordException(new UserApiFailurePredicate())
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        api = (ResilientUserApiService) UserClientConfig.getUserApiService(
+                config.userWebClient(WebClient.builder(), properties, connectionProvider, new SimpleMeterRegistry()), circuitBreakers, bulkheads);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionProvider.dispose();
+        userService.shutdown();
+    }
+
+    @Test
+    void opensCircuitWhenUserServiceIsSlowAndProbesAfterWaiting() throws InterruptedException {
+        userService.enqueue(json("{}").setHeadersDelay(1, TimeUnit.SECONDS));
+        userService.enqueue(json("{}").setHeadersDelay(1, TimeUnit.SECONDS));
+        StepVerifier.create(api.findByEmail("a@coderoom.com")).expectError().verify();
+        StepVerifier.create(api.findByEmail("b@coderoom.com")).expectError().verify();
+
+        CircuitBreaker circuitBreaker = api.getCircuitBreaker(UserApiOperation.FIND_BY_EMAIL);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        StepVerifier.create(api.findByEmail("c@coderoom.com"))
+                .expectError(ServiceUnavailableException.class)
+                .verify(Duration.ofMillis(100));
+        assertThat(userService.getRequestCount()).isEqualTo(2);
+        assertThat(api.getCircuitBreaker(UserApiOperation.CHECK_USER).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        Thread.sleep(600);
+        userService.enqueue(json("{\"email\":\"d@coderoom.com\"}"));
+        StepVerifier.create(api.findByEmail("d@coderoom.com"))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void doesNotCountClientErrorsAsFailures() {
+        userService.enqueue(new MockResponse().setResponseCode(404));
+        userService.enqueue(new MockResponse().setResponseCode(404));
+        StepVerifier.create(api.findByEmail("a@coderoom.com")).expectError().verify();
+        StepVerifier.create(api.findByEmail("b@coderoom.com")).expectError().verify();
+
+        assertThat(api.getCircuitBreaker(UserApiOperation.FIND_BY_EMAIL).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void rejectsCallsBeyondBulkheadLimit() {
+        userService.enqueue(json("{\"email\":\"a@coderoom.com\"}").setHeadersDelay(100, TimeUnit.MILLISECONDS));
+        Mono<?> first = api.findByEmail("a@coderoom.com");
+        Mono<?> second = api.findByEmail("b@coderoom.com").delaySubscription(Duration.ofMillis(20));
+
+        StepVerifier.create(Mono.zipDelayError(first, second))
+                .expectError(ServiceUnavailableException.class)
+                .verify(Duration.ofSeconds(1));
+        assertThat(userService.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotRecordBulkheadRejectionsInTheCircuitBreaker() {
+        userService.enqueue(json("{}").setHeadersDelay(1, TimeUnit.SECONDS));
+        Mono<?> slow = api.findByEmail("a@coderoom.com").onErrorResume(e -> Mono.empty());
+        Mono<?> rejected = Flux.range(0, 5)
+                .flatMap(i -> api.findByEmail("b@coderoom.com")
+                        .onErrorResume(ServiceUnavailableException.class, e -> Mono.empty()))
+                .then()
+                .delaySubscription(Duration.ofMillis(20));
+
+        StepVerifier.create(Mono.when(slow, rejected)).verifyComplete();
+
+        CircuitBreaker.Metrics metrics = api.getCircuitBreaker(UserApiOperation.FIND_BY_EMAIL).getMetrics();
+        assertThat(metrics.getNumberOfBufferedCalls()).isEqualTo(1);
+        assertThat(metrics.getNumberOfSuccessfulCalls()).isZero();
+        assertThat(userService.getRequestCount()).isEqualTo(1);
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+}
@@ -0,0 +1,122 @@
+package com.code_room.auth_service.infrastructure.restclient.config;
+
+import com.code_room.auth_service.infrastructure.controller.dto.LoginDto;
+import com.code_room.auth_service.infrastructure.restclient.UserApiOperation;
+import com.code_room.auth_service.infrastructure.restclient.UserApiService;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserClientConfigTest {
+
+    private final MockWebServer userService = new MockWebServer();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ConnectionProvider connectionProvider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        userService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        userService.shutdown();
+    }
+
+    @Test
+    void bindsClientProfileFromProperties() {
+        UserClientProperties properties = bind(Map.of(
+                "spring.application.restclient.user.url", "http://localhost:8081/",
+                "spring.application.restclient.user.protocols", "h2c,http11",
+                "spring.application.restclient.user.pool.max-connections", "8",
+                "spring.application.restclient.user.timeout.response", "5s",
+                "spring.application.restclient.user.timeout.call", "10s",
+                "spring.application.restclient.user.operations.create-user.call", "15s"));
+
+        assertThat(properties.getProtocols()).containsExactly(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        assertThat(properties.getPool().getMaxConnections()).isEqualTo(8);
+        UserClientProperties.Timeouts createUser = properties.timeoutsFor(UserApiOperation.CREATE_USER);
+        assertThat(createUser.getCall()).isEqualTo(Duration.ofSeconds(15));
+        assertThat(createUser.getResponse()).isEqualTo(Duration.ofSeconds(5));
+        assertThat(properties.timeoutsFor(UserApiOperation.FIND_BY_EMAIL).getCall()).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void appliesTimeoutsOfEachOperation() {
+        UserApiService api = userApiService(bind(Map.of(
+                "spring.application.restclient.user.url", userService.url("/").toString(),
+                "spring.application.restclient.user.timeout.response", "5s",
+                "spring.application.restclient.user.operations.find-by-email.response", "200ms")));
+        userService.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"email\":\"slow@coderoom.com\"}")
+                .setHeadersDelay(1500, TimeUnit.MILLISECONDS));
+        userService.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"email\":\"user@coderoom.com\"}")
+                .setHeadersDelay(500, TimeUnit.MILLISECONDS));
+
+        StepVerifier.create(api.findByEmail("slow@coderoom.com"))
+                .expectError()
+                .verify(Duration.ofMillis(1000));
+
+        LoginDto login = new LoginDto();
+        login.setEmail("user@coderoom.com");
+        StepVerifier.create(api.checkUser(login))
+                .expectNextMatches(user -> user.getEmail().equals("user@coderoom.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void recordsEachCallByOperationAndStatus() {
+        UserApiService api = userApiService(bind(Map.of(
+                "spring.application.restclient.user.url", userService.url("/").toString(),
+                "spring.application.restclient.user.operations.find-by-email.response", "200ms")));
+        userService.enqueue(new MockResponse().setResponseCode(404));
+        userService.enqueue(new MockResponse().setHeadersDelay(1, TimeUnit.SECONDS));
+
+        StepVerifier.create(api.verifyUser("123456")).expectError().verify(Duration.ofSeconds(1));
+        StepVerifier.create(api.findByEmail("slow@coderoom.com")).expectError().verify(Duration.ofSeconds(1));
+
+        assertThat(meterRegistry.get("auth.user-api.requests")
+                .tags("operation", "verify-user", "status", "404").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.user-api.requests")
+                .tags("operation", "find-by-email", "status", "TIMEOUT").timer().count()).isEqualTo(1);
+    }
+
+    private UserApiService userApiService(UserClientProperties properties) {
+        UserClientConfig config = new UserClientConfig();
+        connectionProvider = config.userConnectionProvider(properties);
+        return UserClientConfig.getUserApiService(config.userWebClient(WebClient.builder(), properties, connectionProvider, meterRegistry),
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults());
+    }
+
+    private static UserClientProperties bind(Map<String, String> source) {
+        return new Binder(new MapConfigurationPropertySource(source))
+                .bind("spring.application.restclient.user", UserClientProperties.class)
+                .get();
+    }
+}
@@ -0,0 +1,199 @@
+package com.code_room.auth_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the running gateway with login, refresh, register and proxied traffic at fixed rates and
+ * reports latency percentiles and error rates per route.
+ *
+ * <p>Every dependency is local: the User service and the proxied services are {@link StubBackends}
+ * answering after {@code loadtest.latency}, and registration emails go to an in-process GreenMail
+ * SMTP server. Rate limiting is switched off, as all traffic comes from one client address.
+ *
+ * <p>Excluded from the default build; run with {@code mvn -Ploadtest test}. Settings are system
+ * properties: {@code loadtest.duration} (10s), {@code loadtest.warmup} (5s), {@code loadtest.latency}
+ * (20ms), {@code loadtest.rate.<route>} in requests per second (login 20, refresh 20, register 5,
+ * proxied 100), {@code loadtest.max-in-flight} (256) and {@code loadtest.max-error-rate} (0.01).
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.com.icegreen.greenmail=WARN",
+        "auth.rate-limit.enabled=false",
+        "auth.rate-limit.gateway.enabled=false"
+})
+class GatewayLoadTest {
+
+    private static final Duration DURATION = duration("loadtest.duration", "10s");
+    private static final Duration WARMUP = duration("loadtest.warmup", "5s");
+    private static final Duration LATENCY = duration("loadtest.latency", "20ms");
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("loadtest.max-in-flight", 256);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+    private static final String PASSWORD = "Secret123";
+    private static final String PROXIED_PATH = "/services/be/offer-service/offers";
+    private static final int REFRESH_TOKENS = 64;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication())
+            .withPerMethodLifecycle(false);
+
+    private static StubBackends backends;
+
+    @LocalServerPort
+    private int port;
+
+    private WebClient client;
+
+    private String accessToken;
+
+    private final Queue<String> refreshTokens = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    @DynamicPropertySource
+    static void backends(DynamicPropertyRegistry registry) throws IOException {
+        backends = new StubBackends(LATENCY);
+        backends.start();
+        registry.add("gateway.backends.user-service", backends::userServiceUrl);
+        for (String route : List.of("code-service", "offer-service", "interview-service", "audio-service")) {
+            registry.add("gateway.backends." + route, backends::echoUrl);
+        }
+        registry.add("gateway.backends.stream-ws", () -> backends.echoUrl().replaceFirst("^http", "ws"));
+        registry.add("spring.mail.host", () -> ServerSetupTest.SMTP.getBindAddress());
+        registry.add("spring.mail.port", ServerSetupTest.SMTP::getPort);
+        registry.add("spring.mail.properties.mail.smtp.auth", () -> false);
+        registry.add("spring.mail.properties.mail.smtp.starttls.enable", () -> false);
+    }
+
+    @AfterAll
+    static void stopBackends() throws IOException {
+        backends.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        client = WebClient.builder().baseUrl("http://localhost:" + port).build();
+        JsonNode login = login().block(Duration.ofSeconds(10));
+        assertThat(login).as("login against the stub user service").isNotNull();
+        accessToken = login.get("accessToken").asText();
+        Flux.range(0, REFRESH_TOKENS)
+                .flatMap(i -> login())
+                .doOnNext(body -> refreshTokens.add(body.get("refreshToken").asText()))
+                .blockLast(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void sustainsTargetRatesWithinErrorBudget() {
+        run(drivers(), WARMUP);
+        List<LoadDriver> drivers = drivers();
+        run(drivers, DURATION);
+
+        System.out.printf("%nGateway load test: %s at %s stub latency%n%s%n", DURATION, LATENCY, LoadDriver.header());
+        drivers.forEach(driver -> System.out.println(driver.report()));
+
+        for (LoadDriver driver : drivers) {
+            assertThat(driver.requests()).as("%s requests", driver.route()).isPositive();
+            assertThat(driver.errorRate()).as("%s error rate", driver.route()).isLessThanOrEqualTo(MAX_ERROR_RATE);
+        }
+        assertThat(greenMail.waitForIncomingEmail(10_000, 1)).as("registration email delivered").isTrue();
+    }
+
+    private List<LoadDriver> drivers() {
+        return List.of(
+                new LoadDriver("login", rate("login", 20), () -> login().map(body -> true)),
+                new LoadDriver("refresh", rate("refresh", 20), this::refresh),
+                new LoadDriver("register", rate("register", 5), this::register),
+                new LoadDriver("proxied", rate("proxied", 100), this::proxied));
+    }
+
+    private static void run(List<LoadDriver> drivers, Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        Flux.fromIterable(drivers)
+                .flatMap(driver -> driver.run(duration, MAX_IN_FLIGHT))
+                .blockLast(duration.plusMinutes(1));
+    }
+
+    private Mono<JsonNode> login() {
+        return client.post().uri("/auth/login")
+                .bodyValue(Map.of("email", StubBackends.EMAIL, "password", PASSWORD))
+                .exchangeToMono(GatewayLoadTest::successBody);
+    }
+
+    /**
+     * Refreshes a token from the pool and returns the rotated one to it, as each token is single use.
+     */
+    private Mono<Boolean> refresh() {
+        String refreshToken = refreshTokens.poll();
+        if (refreshToken == null) {
+            return Mono.just(false);
+        }
+        return client.post().uri("/auth/refresh")
+                .bodyValue(Map.of("refresToken", refreshToken))
+                .exchangeToMono(GatewayLoadTest::successBody)
+                .map(body -> refreshTokens.add(body.get("refresh_token").asText()));
+    }
+
+    private Mono<Boolean> register() {
+        String email = "loadtest+" + registrations.incrementAndGet() + "@coderoom.com";
+        return client.post().uri(uri -> uri.path("/auth/register").queryParam("password", PASSWORD).build())
+                .bodyValue(Map.of("name", "Load", "lastName", "Test", "email", email,
+                        "identification", "1000000000", "role", "CLIENT"))
+                .exchangeToMono(GatewayLoadTest::succeeded);
+    }
+
+    private Mono<Boolean> proxied() {
+        return client.get().uri(PROXIED_PATH)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchangeToMono(GatewayLoadTest::succeeded);
+    }
+
+    private static Mono<JsonNode> successBody(ClientResponse response) {
+        if (!response.statusCode().is2xxSuccessful()) {
+            return response.releaseBody().then(Mono.empty());
+        }
+        return response.bodyToMono(JsonNode.class);
+    }
+
+    private static Mono<Boolean> succeeded(ClientResponse response) {
+        return response.releaseBody().thenReturn(response.statusCode().is2xxSuccessful());
+    }
+
+    private static double rate(String route, double defaultRate) {
+        return Double.parseDouble(System.getProperty("loadtest.rate." + route, String.valueOf(defaultRate)));
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}
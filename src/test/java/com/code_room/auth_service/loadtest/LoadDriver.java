@@ -0,0 +1,115 @@
+package com.code_room.auth_service.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Sends requests for one route at a fixed rate and records how long each took.
+ *
+ * <p>Requests are scheduled open-loop: a slow response does not delay the next request, and each
+ * latency is measured from the time the request was due rather than the time it was sent, so queueing
+ * inside the client is not hidden (no coordinated omission). Ticks that find {@code maxInFlight}
+ * requests outstanding are dropped and counted as errors.
+ */
+final class LoadDriver {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final String route;
+
+    private final double ratePerSecond;
+
+    private final Supplier<Mono<Boolean>> request;
+
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param route         the name the route is reported under
+     * @param ratePerSecond the requests to send per second
+     * @param request       sends one request, emitting whether it succeeded
+     */
+    LoadDriver(String route, double ratePerSecond, Supplier<Mono<Boolean>> request) {
+        this.route = route;
+        this.ratePerSecond = ratePerSecond;
+        this.request = request;
+    }
+
+    /**
+     * @param duration    how long to send requests for
+     * @param maxInFlight the most requests outstanding at once
+     * @return a Mono completing once every request sent has completed
+     */
+    Mono<Void> run(Duration duration, int maxInFlight) {
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long count = duration.toNanos() / periodNanos;
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return Flux.interval(Duration.ofNanos(periodNanos))
+                    .take(count)
+                    .onBackpressureDrop(tick -> {
+                        dropped.incrementAndGet();
+                        errors.incrementAndGet();
+                    })
+                    .flatMap(tick -> send(startNanos + (tick + 1) * periodNanos), maxInFlight)
+                    .then();
+        });
+    }
+
+    private Mono<Boolean> send(long dueNanos) {
+        return Mono.defer(request)
+                .onErrorReturn(false)
+                .defaultIfEmpty(false)
+                .doOnNext(ok -> {
+                    latencies.recordValue(Math.min(MAX_LATENCY_NANOS, Math.max(0, System.nanoTime() - dueNanos)));
+                    if (!ok) {
+                        errors.incrementAndGet();
+                    }
+                });
+    }
+
+    String route() {
+        return route;
+    }
+
+    long requests() {
+        return latencies.getTotalCount() + dropped.get();
+    }
+
+    double errorRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) errors.get() / requests;
+    }
+
+    /**
+     * @return one line with the request count, p50/p99/p999 latencies in milliseconds and the error rate
+     */
+    String report() {
+        return String.format("%-10s %8.1f/s %8d req %9.2f ms %9.2f ms %9.2f ms %9.2f ms %7.2f %%",
+                route, ratePerSecond, requests(),
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()),
+                errorRate() * 100);
+    }
+
+    static String header() {
+        return String.format("%-10s %10s %12s %12s %12s %12s %12s %9s",
+                "route", "rate", "requests", "p50", "p99", "p999", "max", "errors");
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
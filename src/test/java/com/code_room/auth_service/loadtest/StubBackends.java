@@ -0,0 +1,103 @@
+package com.code_room.auth_service.loadtest;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-ins for the services behind the gateway, answering after a fixed latency.
+ *
+ * <p>The user stub implements the endpoints of {@code UserApiService} for a single user, whatever
+ * the credentials; the echo stub answers every proxied route with the path it was asked for.
+ */
+final class StubBackends {
+
+    static final String EMAIL = "loadtest@coderoom.com";
+
+    private static final String USER_PATH = "/services/be/user-service/users/";
+
+    private static final String USER = """
+            {"id":"64f1c0d2a9e4b3f0c1d2e3f4","name":"Load","lastName":"Test","email":"%s",\
+            "identification":"1000000000","role":"CLIENT"}""".formatted(EMAIL);
+
+    private final MockWebServer userService = new MockWebServer();
+
+    private final MockWebServer echo = new MockWebServer();
+
+    private final long latencyMillis;
+
+    StubBackends(Duration latency) {
+        this.latencyMillis = latency.toMillis();
+    }
+
+    void start() throws IOException {
+        userService.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return user(request);
+            }
+        });
+        echo.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return delayed(new MockResponse().setBody(String.valueOf(request.getPath())));
+            }
+        });
+        userService.start();
+        echo.start();
+    }
+
+    void shutdown() throws IOException {
+        userService.shutdown();
+        echo.shutdown();
+    }
+
+    /**
+     * @return the base URL of the user-service stub, without a trailing slash
+     */
+    String userServiceUrl() {
+        return withoutTrailingSlash(userService.url("/").toString());
+    }
+
+    /**
+     * @return the base URL of the echo stub, without a trailing slash
+     */
+    String echoUrl() {
+        return withoutTrailingSlash(echo.url("/").toString());
+    }
+
+    private MockResponse user(RecordedRequest request) {
+        String path = String.valueOf(request.getPath());
+        if (!path.startsWith(USER_PATH)) {
+            return new MockResponse().setResponseCode(404);
+        }
+        String operation = path.substring(USER_PATH.length());
+        if (operation.startsWith("user-check") || operation.startsWith("email/")) {
+            return delayed(json(USER));
+        }
+        if (operation.startsWith("create")) {
+            return delayed(json("{\"verification code\":\"123456\"}"));
+        }
+        if (operation.startsWith("verify")) {
+            return delayed(json("{\"message\":\"verified\"}"));
+        }
+        return new MockResponse().setResponseCode(404);
+    }
+
+    private MockResponse delayed(MockResponse response) {
+        return response.setHeadersDelay(latencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    private static String withoutTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}